@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Compares time-to-ready and resident memory of the JVM and native builds, and fails unless the
+# native build is both faster to ready and smaller in RSS.
+# Usage: scripts/compare-startup.sh <jar> <native-executable>
+# Requires a reachable MongoDB (spring.data.mongodb.uri) so readiness can be reached.
+set -euo pipefail
+
+JAR=${1:?path to the executable jar}
+NATIVE=${2:?path to the native executable}
+PORT=${PORT:-8081}
+READY_URL="http://localhost:${PORT}/actuator/health/readiness"
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+
+measure() {
+  local name=$1
+  shift
+  local start pid rss_kb elapsed_ms
+  start=$(date +%s%N)
+  "$@" --server.port="${PORT}" > "target/${name}-startup.log" 2>&1 &
+  pid=$!
+  until curl -sf "${READY_URL}" > /dev/null; do
+    if ! kill -0 "${pid}" 2> /dev/null; then
+      echo "${name} exited before becoming ready, see target/${name}-startup.log" >&2
+      exit 1
+    fi
+    if (( ($(date +%s%N) - start) / 1000000000 > TIMEOUT_SECONDS )); then
+      kill "${pid}"
+      echo "${name} not ready after ${TIMEOUT_SECONDS}s" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  elapsed_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+  rss_kb=$(awk '/VmRSS/ {print $2}' "/proc/${pid}/status")
+  kill "${pid}"
+  wait "${pid}" 2> /dev/null || true
+  printf '%-7s ready in %6d ms, RSS %6d MB\n' "${name}" "${elapsed_ms}" "$(( rss_kb / 1024 ))"
+  READY_MS[${name}]=${elapsed_ms}
+  RSS_KB[${name}]=${rss_kb}
+}
+
+declare -A READY_MS RSS_KB
+measure jvm java -jar "${JAR}"
+measure native "${NATIVE}"
+
+status=0
+if (( READY_MS[native] >= READY_MS[jvm] )); then
+  echo "native build is not faster to ready than the JVM build" >&2
+  status=1
+fi
+if (( RSS_KB[native] >= RSS_KB[jvm] )); then
+  echo "native build does not use less memory than the JVM build" >&2
+  status=1
+fi
+exit "${status}"
@@ -1,9 +1,14 @@
 package com.afrisol.ProductService;
 
+import com.afrisol.ProductService.config.NativeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
+@EnableScheduling
 public class ProductServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,9 @@
+package com.afrisol.ProductService.cache;
+
+import com.afrisol.ProductService.model.Product;
+
+/**
+ * A cached product and the {@link System#currentTimeMillis()} at which its entry expires.
+ */
+public record CachedProduct(Product product, long expiresAt) {
+}
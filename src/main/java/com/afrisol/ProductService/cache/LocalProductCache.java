@@ -0,0 +1,140 @@
+package com.afrisol.ProductService.cache;
+
+import com.afrisol.ProductService.model.Product;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-heap L1 tier. Entries are kept encoded, which keeps them small and means callers can never
+ * mutate a cached product. Reads take no lock: a hit only stamps the entry's access time. When
+ * the cache grows past its size, the least recently used entries are dropped in a batch, so the
+ * sort that finds them is paid once per batch rather than on every write. The TTL bounds how stale
+ * an entry can be after another replica updates the product.
+ * <p>
+ * An eviction leaves a marker, kept apart from the entries so it never takes their room, and a
+ * fill whose read started before it is dropped. Markers that are dropped to bound memory raise a
+ * watermark first; fills of reads that started before it are dropped too, so forgetting a write
+ * never lets an older read through.
+ */
+public class LocalProductCache implements ProductCache {
+
+    private static final class Entry {
+        private final byte[] data;
+        private final long expiresAt;
+        private volatile long accessedAt;
+
+        private Entry(byte[] data, long expiresAt) {
+            this.data = data;
+            this.expiresAt = expiresAt;
+            this.accessedAt = System.nanoTime();
+        }
+    }
+
+    private record Candidate(String productId, Entry entry, long accessedAt) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Long> evictions = new ConcurrentHashMap<>();
+    private final Object trimLock = new Object();
+    private final int maxEntries;
+    private final long ttlMillis;
+    private volatile long forgottenUntil;
+
+    public LocalProductCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    @Override
+    public Mono<CachedProduct> lookup(String productId) {
+        return Mono.fromSupplier(() -> {
+            Entry entry = entries.get(productId);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                // Filled more than a TTL ago, no read still in flight started before it
+                entries.remove(productId, entry);
+                return null;
+            }
+            entry.accessedAt = System.nanoTime();
+            return new CachedProduct(ProductCodec.decode(entry.data), entry.expiresAt);
+        });
+    }
+
+    @Override
+    public Mono<Void> fill(Product product, long readStartedAt, long expiresAt) {
+        return Mono.fromRunnable(() -> {
+            byte[] data = ProductCodec.encode(product);
+            long now = System.currentTimeMillis();
+            // Atomic per product, an eviction of the same product waits for it or is seen by it
+            entries.compute(product.getProductId(), (productId, current) -> {
+                Long evictedAt = evictions.get(productId);
+                if ((evictedAt != null && evictedAt >= readStartedAt) || forgottenUntil >= readStartedAt) {
+                    return current;
+                }
+                return new Entry(data, Math.min(expiresAt, now + ttlMillis));
+            });
+            trimEntries();
+        });
+    }
+
+    @Override
+    public Mono<Void> evict(String productId) {
+        return Mono.fromRunnable(() -> {
+            evictions.put(productId, System.currentTimeMillis());
+            entries.remove(productId);
+            trimEvictions();
+        });
+    }
+
+    private void trimEntries() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        synchronized (trimLock) {
+            int excess = entries.size() - maxEntries;
+            if (excess <= 0) {
+                return;
+            }
+            // Access times are copied first, hits keep changing them while the candidates are sorted
+            List<Candidate> leastRecentlyUsed = new ArrayList<>(entries.size());
+            entries.forEach((productId, entry) -> leastRecentlyUsed.add(new Candidate(productId, entry, entry.accessedAt)));
+            leastRecentlyUsed.sort(Comparator.comparingLong(Candidate::accessedAt));
+            // Dropping a little more than needed leaves room for the next fills without another sort
+            List<Candidate> dropped = leastRecentlyUsed.subList(0, Math.min(leastRecentlyUsed.size(), excess + maxEntries / 16));
+            // Entries only ever hold what a read returned, dropping one forgets no write
+            dropped.forEach(candidate -> entries.remove(candidate.productId(), candidate.entry()));
+        }
+    }
+
+    private void trimEvictions() {
+        if (evictions.size() <= maxEntries) {
+            return;
+        }
+        synchronized (trimLock) {
+            if (evictions.size() <= maxEntries) {
+                return;
+            }
+            // The older half goes, markers only matter to reads that were in flight when they were set
+            List<Map.Entry<String, Long>> oldestFirst = new ArrayList<>(evictions.entrySet());
+            oldestFirst.sort(Map.Entry.comparingByValue());
+            List<Map.Entry<String, Long>> dropped = oldestFirst.subList(0, oldestFirst.size() / 2);
+            forget(dropped.stream().mapToLong(Map.Entry::getValue).max().orElse(0));
+            dropped.forEach(marker -> evictions.remove(marker.getKey(), marker.getValue()));
+        }
+    }
+
+    // Raised before a marker is dropped, so a concurrent fill always sees one or the other
+    private void forget(long evictedAt) {
+        if (evictedAt > forgottenUntil) {
+            forgottenUntil = evictedAt;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.afrisol.ProductService.cache;
+
+import com.afrisol.ProductService.model.Product;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * Off-heap L2 tier backed by a memory-mapped file, so its content survives a restart of the
+ * process. The file is a direct-mapped table of fixed-size slots; a product whose slot is taken
+ * by another product simply replaces it. Each slot holds the encoded length, the expiry time, the
+ * time of the last eviction and the {@link ProductCodec} bytes. Fills are dropped when the slot
+ * was evicted after their read started. Products that do not fit in a slot are not cached.
+ * The file belongs to one process; instances must not share a path.
+ */
+@Slf4j
+public class MappedFileProductCache implements ProductCache, AutoCloseable {
+
+    private static final int MAGIC = 0x50434332;
+    private static final int HEADER_SIZE = 16;
+    private static final int EXPIRES_AT = Integer.BYTES;
+    private static final int MODIFIED_AT = EXPIRES_AT + Long.BYTES;
+    private static final int ENTRY_HEADER_SIZE = MODIFIED_AT + Long.BYTES;
+    private static final int LOCK_STRIPES = 64;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int slotSize;
+    private final long ttlMillis;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public MappedFileProductCache(Path path, int slotCount, int slotSize, Duration ttl) throws IOException {
+        long fileSize = HEADER_SIZE + (long) slotCount * slotSize;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cache file would exceed 2 GB, reduce slot count or slot size");
+        }
+        this.slotCount = slotCount;
+        this.slotSize = slotSize;
+        this.ttlMillis = ttl.toMillis();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean sameLayout = channel.size() == fileSize;
+        if (!sameLayout) {
+            channel.truncate(0);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        if (sameLayout && buffer.getInt(0) == MAGIC && buffer.getInt(4) == slotCount && buffer.getInt(8) == slotSize) {
+            log.info("Reusing product cache file {}", path);
+        } else {
+            reset();
+            log.info("Created product cache file {} with {} slots of {} bytes", path, slotCount, slotSize);
+        }
+    }
+
+    @Override
+    public Mono<CachedProduct> lookup(String productId) {
+        return Mono.fromSupplier(() -> read(productId));
+    }
+
+    @Override
+    public Mono<Void> fill(Product product, long readStartedAt, long expiresAt) {
+        return Mono.fromRunnable(() -> write(product, readStartedAt, expiresAt));
+    }
+
+    @Override
+    public Mono<Void> evict(String productId) {
+        return Mono.fromRunnable(() -> {
+            int slot = slotFor(productId);
+            int offset = offsetOf(slot);
+            synchronized (lockFor(slot)) {
+                buffer.putInt(offset, 0);
+                buffer.putLong(offset + MODIFIED_AT, System.currentTimeMillis());
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private CachedProduct read(String productId) {
+        int slot = slotFor(productId);
+        int offset = offsetOf(slot);
+        byte[] data;
+        long expiresAt;
+        synchronized (lockFor(slot)) {
+            int length = buffer.getInt(offset);
+            expiresAt = buffer.getLong(offset + EXPIRES_AT);
+            if (length <= 0 || length > slotSize - ENTRY_HEADER_SIZE || expiresAt < System.currentTimeMillis()) {
+                return null;
+            }
+            data = new byte[length];
+            buffer.get(offset + ENTRY_HEADER_SIZE, data);
+        }
+        try {
+            Product product = ProductCodec.decode(data);
+            // The slot may hold another product with a colliding hash
+            return productId.equals(product.getProductId()) ? new CachedProduct(product, expiresAt) : null;
+        } catch (RuntimeException e) {
+            // A slot torn by a crash mid-write reads as a miss
+            return null;
+        }
+    }
+
+    private void write(Product product, long readStartedAt, long expiresAt) {
+        byte[] data = ProductCodec.encode(product);
+        if (data.length > slotSize - ENTRY_HEADER_SIZE) {
+            return;
+        }
+        int slot = slotFor(product.getProductId());
+        int offset = offsetOf(slot);
+        synchronized (lockFor(slot)) {
+            if (buffer.getLong(offset + MODIFIED_AT) >= readStartedAt) {
+                return;
+            }
+            // The length goes last so a partially written slot is never read as valid
+            buffer.putInt(offset, 0);
+            buffer.put(offset + ENTRY_HEADER_SIZE, data);
+            buffer.putLong(offset + EXPIRES_AT, Math.min(expiresAt, System.currentTimeMillis() + ttlMillis));
+            buffer.putInt(offset, data.length);
+        }
+    }
+
+    private void reset() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            buffer.putInt(offsetOf(slot), 0);
+            buffer.putLong(offsetOf(slot) + MODIFIED_AT, 0);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, slotCount);
+        buffer.putInt(8, slotSize);
+        buffer.force();
+    }
+
+    private int slotFor(String productId) {
+        return Math.floorMod(productId.hashCode() * 0x9E3779B9, slotCount);
+    }
+
+    private int offsetOf(int slot) {
+        return HEADER_SIZE + slot * slotSize;
+    }
+
+    private Object lockFor(int slot) {
+        return locks[slot % LOCK_STRIPES];
+    }
+}
@@ -0,0 +1,38 @@
+package com.afrisol.ProductService.cache;
+
+import com.afrisol.ProductService.model.Product;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache of live products in front of {@code ProductRepository}. Implementations may be local or
+ * remote, which is why every operation is asynchronous. A miss completes empty, never with an error.
+ * Writes of a product evict it; caching what a read returned uses {@link #fill}, so a read that
+ * raced a write cannot bring back the product the write replaced.
+ */
+public interface ProductCache {
+    default Mono<Product> get(String productId) {
+        return lookup(productId).map(CachedProduct::product);
+    }
+
+    /**
+     * Like {@link #get}, along with the time the entry expires, so a tier in front of this cache can
+     * take the product over without extending its life.
+     */
+    Mono<CachedProduct> lookup(String productId);
+
+    /**
+     * Caches a product read from the database, unless it was evicted at or after
+     * {@code readStartedAt}, the {@link System#currentTimeMillis()} taken before the read.
+     */
+    default Mono<Void> fill(Product product, long readStartedAt) {
+        return fill(product, readStartedAt, Long.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #fill(Product, long)}, but the entry expires at {@code expiresAt} when that comes
+     * before the cache's own TTL.
+     */
+    Mono<Void> fill(Product product, long readStartedAt, long expiresAt);
+
+    Mono<Void> evict(String productId);
+}
@@ -0,0 +1,35 @@
+package com.afrisol.ProductService.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class ProductCacheConfig {
+
+    @Bean
+    public ProductCache productCache(@Value("${product.cache.l1.max-entries:10000}") int l1MaxEntries,
+                                     @Value("${product.cache.l1.ttl:30s}") Duration l1Ttl,
+                                     @Value("${product.cache.l2.type:none}") String l2Type,
+                                     @Value("${product.cache.l2.path:}") String l2Path,
+                                     @Value("${product.cache.l2.slots:32768}") int l2Slots,
+                                     @Value("${product.cache.l2.slot-size:4096}") int l2SlotSize,
+                                     @Value("${product.cache.l2.ttl:5m}") Duration l2Ttl) throws IOException {
+        ProductCache l1 = new LocalProductCache(l1MaxEntries, l1Ttl);
+        return switch (l2Type) {
+            case "none" -> l1;
+            case "mapped" -> {
+                // The file must belong to this instance, so there is no default location to fall back to
+                if (l2Path.isBlank()) {
+                    throw new IllegalArgumentException("product.cache.l2.path is required when product.cache.l2.type is mapped");
+                }
+                yield new TieredProductCache(l1, new MappedFileProductCache(Path.of(l2Path), l2Slots, l2SlotSize, l2Ttl));
+            }
+            default -> throw new IllegalArgumentException("Unknown product.cache.l2.type: " + l2Type);
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.afrisol.ProductService.cache;
+
+import com.afrisol.ProductService.model.Product;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Compact binary form of a cached {@link Product}: a version byte followed by the fields in
+ * declaration order, strings as modified UTF-8 behind a presence flag.
+ */
+public final class ProductCodec {
+    private static final byte VERSION = 2;
+
+    private ProductCodec() {
+    }
+
+    public static byte[] encode(Product product) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeString(out, product.getProductId());
+            writeString(out, product.getTenantId());
+            writeString(out, product.getName());
+            writeString(out, product.getDescription());
+            writeString(out, product.getType());
+            out.writeBoolean(product.getPrice() != null);
+            if (product.getPrice() != null) {
+                out.writeDouble(product.getPrice());
+            }
+            out.writeInt(product.getQuantity());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static Product decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported product encoding version: " + version);
+            }
+            return Product.builder()
+                    .productId(readString(in))
+                    .tenantId(readString(in))
+                    .name(readString(in))
+                    .description(readString(in))
+                    .type(readString(in))
+                    .price(in.readBoolean() ? in.readDouble() : null)
+                    .quantity(in.readInt())
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.afrisol.ProductService.cache;
+
+import com.afrisol.ProductService.model.Product;
+import reactor.core.publisher.Mono;
+
+/**
+ * Looks up the L1 tier first and falls back to L2, promoting L2 hits into L1 as fills. A promoted
+ * entry keeps the expiry it had in L2, so moving between tiers never extends how stale a product
+ * can get. Fills and evictions go to both tiers.
+ */
+public class TieredProductCache implements ProductCache, AutoCloseable {
+
+    private final ProductCache l1;
+    private final ProductCache l2;
+
+    public TieredProductCache(ProductCache l1, ProductCache l2) {
+        this.l1 = l1;
+        this.l2 = l2;
+    }
+
+    @Override
+    public Mono<CachedProduct> lookup(String productId) {
+        return l1.lookup(productId)
+                .switchIfEmpty(Mono.defer(() -> {
+                    long readStartedAt = System.currentTimeMillis();
+                    return l2.lookup(productId)
+                            .flatMap(cached -> l1.fill(cached.product(), readStartedAt, cached.expiresAt()).thenReturn(cached));
+                }));
+    }
+
+    @Override
+    public Mono<Void> fill(Product product, long readStartedAt, long expiresAt) {
+        return Mono.when(l1.fill(product, readStartedAt, expiresAt), l2.fill(product, readStartedAt, expiresAt));
+    }
+
+    @Override
+    public Mono<Void> evict(String productId) {
+        return Mono.when(l1.evict(productId), l2.evict(productId));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (l2 instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.afrisol.ProductService.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long a task waits before an HTTP server event loop runs it. A loop that is busy
+ * with CPU work shows up as a growing {@code product.eventloop.lag}, tagged by loop index.
+ */
+@Component
+public class EventLoopLagMonitor {
+
+    private final MeterRegistry meterRegistry;
+    private final List<Probe> probes = new ArrayList<>();
+
+    public EventLoopLagMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void registerEventLoops() {
+        // The embedded server runs on the global HTTP resources unless configured otherwise
+        EventLoopGroup group = HttpResources.get().onServer(LoopResources.DEFAULT_NATIVE);
+        int index = 0;
+        for (EventExecutor executor : group) {
+            probes.add(new Probe(executor, Timer.builder("product.eventloop.lag")
+                    .description("Delay before a task submitted to an HTTP event loop starts")
+                    .tag("loop", String.valueOf(index++))
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry)));
+        }
+    }
+
+    @Scheduled(fixedRateString = "${product.execution.lag-probe-interval:PT1S}")
+    public synchronized void probe() {
+        for (Probe probe : probes) {
+            long submitted = System.nanoTime();
+            probe.executor().execute(() -> probe.timer().record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS));
+        }
+    }
+
+    private record Probe(EventExecutor executor, Timer timer) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.afrisol.ProductService.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Chooses where request body validation runs. {@code event-loop} keeps it on the calling thread,
+ * {@code bounded} moves it to a bounded pool with a bounded queue, and {@code virtual} gives each
+ * task its own virtual thread, which needs a Java 21 runtime. Only validation is offloaded: the
+ * body is still decoded from JSON or Smile on the event loop, and the service maps it onto a
+ * product on whichever thread completes the preceding database call.
+ */
+@Slf4j
+@Configuration
+public class ExecutionConfig {
+
+    public static final String WORK_SCHEDULER = "workScheduler";
+
+    @Bean(name = WORK_SCHEDULER, destroyMethod = "dispose")
+    public Scheduler workScheduler(@Value("${product.execution.mode:bounded}") String mode,
+                                   @Value("${product.execution.threads:0}") int threads,
+                                   @Value("${product.execution.queued-tasks:10000}") int queuedTasks) {
+        Scheduler scheduler = switch (mode) {
+            case "event-loop" -> Schedulers.immediate();
+            case "bounded" -> Schedulers.newBoundedElastic(
+                    threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), queuedTasks, "product-work");
+            case "virtual" -> Schedulers.fromExecutorService(virtualThreadExecutor(), "product-work");
+            default -> throw new IllegalArgumentException("Unknown product.execution.mode: " + mode);
+        };
+        log.info("Request work runs in {} mode", mode);
+        return scheduler;
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        // Looked up reflectively so the service still compiles and runs on Java 17 in the other modes, NativeHints registers it
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("product.execution.mode=virtual requires Java 21 or later", e);
+        }
+    }
+}
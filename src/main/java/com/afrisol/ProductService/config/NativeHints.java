@@ -0,0 +1,84 @@
+package com.afrisol.ProductService.config;
+
+import com.afrisol.ProductService.dto.JobRequestDto;
+import com.afrisol.ProductService.dto.JobResponseDto;
+import com.afrisol.ProductService.dto.PopularProductDto;
+import com.afrisol.ProductService.dto.PriceHistoryPointDto;
+import com.afrisol.ProductService.dto.ProductRequestDto;
+import com.afrisol.ProductService.dto.ProductResponseDto;
+import com.afrisol.ProductService.exception.ApiError;
+import com.afrisol.ProductService.exception.GlobalExceptionHandler;
+import com.afrisol.ProductService.model.AccessSnapshot;
+import com.afrisol.ProductService.model.CatalogueJob;
+import com.afrisol.ProductService.model.OutboxEvent;
+import com.afrisol.ProductService.model.PriceHistoryBucket;
+import com.afrisol.ProductService.model.Product;
+import com.afrisol.ProductService.model.ProductName;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Reflection hints for the native image. Spring AOT infers most of these from the controllers and
+ * repositories, but Bean Validation reads constraint annotations from fields and Jackson binds the
+ * DTOs through their Lombok-generated accessors, neither of which the AOT engine can see. The
+ * virtual thread executor is looked up reflectively by {@link ExecutionConfig}.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] BOUND_TYPES = {
+            Product.class,
+            ProductRequestDto.class,
+            ProductResponseDto.class,
+            JobRequestDto.class,
+            JobResponseDto.class,
+            PopularProductDto.class,
+            PriceHistoryPointDto.class,
+            CatalogueJob.class,
+            AccessSnapshot.class,
+            PriceHistoryBucket.class,
+            OutboxEvent.class,
+            ProductName.class,
+            ApiError.class
+    };
+
+    private static final Class<?>[] VALIDATED_TYPES = {
+            Product.class,
+            ProductRequestDto.class,
+            JobRequestDto.class
+    };
+
+    private static final Class<?>[] BUILDER_TYPES = {
+            Product.ProductBuilder.class,
+            ProductRequestDto.ProductRequestDtoBuilder.class,
+            ProductResponseDto.ProductResponseDtoBuilder.class,
+            JobRequestDto.JobRequestDtoBuilder.class,
+            JobResponseDto.JobResponseDtoBuilder.class
+    };
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), BOUND_TYPES);
+        for (Class<?> type : VALIDATED_TYPES) {
+            hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS);
+        }
+        for (Class<?> type : BUILDER_TYPES) {
+            hints.reflection().registerType(type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.reflection().registerType(GlobalExceptionHandler.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+        // Registered by name, the method only exists on Java 21
+        hints.reflection().registerType(Executors.class, type -> type.withMethod(
+                "newVirtualThreadPerTaskExecutor", List.of(), ExecutableMode.INVOKE));
+    }
+}
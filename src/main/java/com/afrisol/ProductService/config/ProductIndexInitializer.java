@@ -0,0 +1,170 @@
+package com.afrisol.ProductService.config;
+
+import com.afrisol.ProductService.model.AccessSnapshot;
+import com.afrisol.ProductService.model.CatalogueJob;
+import com.afrisol.ProductService.model.OutboxEvent;
+import com.afrisol.ProductService.model.Product;
+import com.afrisol.ProductService.model.ProductName;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Prepares the products collection before traffic is accepted. Lookup indexes start with
+ * {@code tenantId}, since every query is scoped by tenant, and are partial on {@code deleted: false}
+ * so tombstones never enter them. Names are reserved in {@code product_names}, whose unique index
+ * keeps two live products of a tenant from sharing a name even when concurrent requests both pass
+ * the existence check; the products collection cannot carry that index once it is sharded on
+ * {@code {tenantId, _id}}. Live products written before reservations existed are reserved by a
+ * one-off migration. Deployments that predate it keep the unique {@code tenant_name_live} index on
+ * products until it is dropped, which {@code sh.shardCollection} requires; drop it once no replica
+ * of an older version is left, and delete the migration's marker before the next start so
+ * products those replicas added are reserved too. A TTL index on
+ * {@code deletedAt} purges tombstones once the retention period has passed; when the retention is
+ * changed, the existing TTL index is altered with {@code collMod} rather than created again, which
+ * Mongo would reject as a conflicting index. Data written before tenants existed is assigned to
+ * the default tenant by a one-off backfill. One-off migrations are recorded in
+ * {@code product_migrations} so later starts skip them. If the indexes cannot be prepared, for
+ * example because live products already share a name, startup fails rather than serving without
+ * them.
+ * The outbox index matches the order in which the relay reads events, and creating it also creates
+ * the collection, which older servers cannot do inside the transactions that write to it.
+ * Hot-products snapshots of replicas that stopped saving them expire after their own retention.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ProductIndexInitializer implements ApplicationRunner {
+
+    private static final String MIGRATIONS_COLLECTION = "product_migrations";
+    private static final String BACKFILL_MIGRATION = "backfill-deleted-and-tenant";
+    private static final String RESERVE_NAMES_MIGRATION = "reserve-product-names";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration tombstoneRetention;
+    private final Duration snapshotRetention;
+    private final String defaultTenantId;
+
+    public ProductIndexInitializer(ReactiveMongoTemplate mongoTemplate,
+                                   @Value("${product.indexes.initialize:true}") boolean enabled,
+                                   @Value("${product.tombstone.retention:30d}") Duration tombstoneRetention,
+                                   @Value("${product.access.snapshot-retention:1d}") Duration snapshotRetention,
+                                   @Value("${product.tenant.default-id:default}") String defaultTenantId) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.tombstoneRetention = tombstoneRetention;
+        this.snapshotRetention = snapshotRetention;
+        this.defaultTenantId = defaultTenantId;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Checked here rather than by a bean condition, which a native image would fix at build time
+        if (!enabled) {
+            return;
+        }
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(Product.class);
+        PartialIndexFilter live = PartialIndexFilter.of(Criteria.where("deleted").is(false));
+        try {
+            applyOnce(BACKFILL_MIGRATION, this::backfill)
+                    // Before the reservations, so two products claiming a name fail the migration rather than both holding it
+                    .then(mongoTemplate.indexOps(ProductName.class).ensureIndex(new Index().on("tenantId", Sort.Direction.ASC)
+                            .on("name", Sort.Direction.ASC).named("tenant_name").unique()))
+                    .then(applyOnce(RESERVE_NAMES_MIGRATION, this::reserveNames)
+                            .onErrorMap(DuplicateKeyException.class, e -> new IllegalStateException(
+                                    "Live products already share a name within a tenant, rename or delete them: " + e.getMessage(), e)))
+                    .then(Mono.when(
+                            indexOps.ensureIndex(new Index().on("tenantId", Sort.Direction.ASC).on("type", Sort.Direction.ASC)
+                                    .named("tenant_type_live").partial(live)),
+                            ensureTtlIndex(Product.class, "deletedAt", "deletedAt_ttl", tombstoneRetention),
+                            mongoTemplate.indexOps(OutboxEvent.class).ensureIndex(new Index().on("createdAt", Sort.Direction.ASC)
+                                    .on("_id", Sort.Direction.ASC).named("createdAt_id")),
+                            ensureTtlIndex(AccessSnapshot.class, "takenAt", "takenAt_ttl", snapshotRetention)))
+                    .block();
+            log.info("Product indexes ready, tombstones are purged after {}", tombstoneRetention);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Could not prepare product indexes: " + e.getMessage(), e);
+        }
+    }
+
+    // Each migration scans the whole collection, so they run once and are then recorded as applied
+    private Mono<Void> applyOnce(String migration, Supplier<Mono<Void>> migrate) {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(migration)), MIGRATIONS_COLLECTION)
+                .flatMap(applied -> applied ? Mono.empty() : migrate.get()
+                        .then(mongoTemplate.insert(new Document("_id", migration).append("appliedAt", Instant.now()),
+                                        MIGRATIONS_COLLECTION)
+                                // Another replica starting at the same time recorded it first, the migrations are idempotent
+                                .onErrorResume(DuplicateKeyException.class, e -> Mono.empty()))
+                        .then());
+    }
+
+    private Mono<Void> backfill() {
+        Query withoutTenant = Query.query(Criteria.where("tenantId").exists(false));
+        // Products written before soft delete have no flag and would be invisible to every read
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("deleted").exists(false)),
+                        Update.update("deleted", false), Product.class)
+                .doOnNext(result -> log.info("Marked {} existing products as live", result.getModifiedCount()))
+                .then(mongoTemplate.updateMulti(withoutTenant, Update.update("tenantId", defaultTenantId), Product.class))
+                .doOnNext(result -> log.info("Assigned {} existing products to tenant {}", result.getModifiedCount(), defaultTenantId))
+                .then(mongoTemplate.updateMulti(withoutTenant, Update.update("tenantId", defaultTenantId), CatalogueJob.class))
+                .then();
+    }
+
+    // Copies the name of every live product into product_names, replacing reservations a previous attempt left
+    private Mono<Void> reserveNames() {
+        return mongoTemplate.aggregate(Aggregation.newAggregation(
+                                Aggregation.match(Criteria.where("deleted").is(false)),
+                                Aggregation.project("tenantId", "name"),
+                                Aggregation.merge()
+                                        .intoCollection(mongoTemplate.getCollectionName(ProductName.class))
+                                        .on("_id")
+                                        .whenMatched(MergeOperation.WhenDocumentsMatch.replaceDocument())
+                                        .whenNotMatched(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                                        .build()),
+                        Product.class, Document.class)
+                .then()
+                .doOnSuccess(unused -> log.info("Reserved the names of existing live products"));
+    }
+
+    // ensureIndex fails with an index options conflict once the retention differs from the existing index
+    private Mono<Void> ensureTtlIndex(Class<?> type, String field, String indexName, Duration retention) {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(type);
+        return indexOps.getIndexInfo()
+                .filter(index -> index.getName().equals(indexName))
+                .collectList()
+                .flatMap(existing -> {
+                    if (existing.isEmpty()) {
+                        return indexOps.ensureIndex(new Index().on(field, Sort.Direction.ASC).named(indexName).expire(retention)).then();
+                    }
+                    if (existing.get(0).getExpireAfter().filter(expiry -> expiry.toSeconds() == retention.toSeconds()).isPresent()) {
+                        return Mono.empty();
+                    }
+                    log.info("Changing the expiry of index {} to {}", indexName, retention);
+                    return mongoTemplate.executeCommand(new Document("collMod", mongoTemplate.getCollectionName(type))
+                                    .append("index", new Document("name", indexName).append("expireAfterSeconds", retention.toSeconds())))
+                            .then();
+                });
+    }
+}
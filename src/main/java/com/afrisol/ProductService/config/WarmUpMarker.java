@@ -0,0 +1,37 @@
+package com.afrisol.ProductService.config;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.UUID;
+
+/**
+ * Tells warm-up requests apart from client traffic. {@link WarmUpRunner} sends its requests with
+ * {@link #WARM_UP_HEADER}; the tenant quota filter recognises them and marks their Reactor context,
+ * which the access tracking in the service layer checks.
+ */
+public final class WarmUpMarker {
+
+    public static final String WARM_UP_HEADER = "X-Warm-Up";
+
+    // Only this process knows the value, a client sending the header still counts as traffic
+    static final String WARM_UP_TOKEN = UUID.randomUUID().toString();
+
+    private static final String WARM_UP_CONTEXT_KEY = WarmUpMarker.class.getName();
+
+    private WarmUpMarker() {
+    }
+
+    public static boolean isWarmUp(ServerHttpRequest request) {
+        return WARM_UP_TOKEN.equals(request.getHeaders().getFirst(WARM_UP_HEADER));
+    }
+
+    public static boolean isWarmUp(ContextView context) {
+        return context.hasKey(WARM_UP_CONTEXT_KEY);
+    }
+
+    public static Context markWarmUp(Context context) {
+        return context.put(WARM_UP_CONTEXT_KEY, true);
+    }
+}
@@ -0,0 +1,190 @@
+package com.afrisol.ProductService.config;
+
+import com.afrisol.ProductService.cache.ProductCache;
+import com.afrisol.ProductService.dto.ProductRequestDto;
+import com.afrisol.ProductService.dto.ProductResponseDto;
+import com.afrisol.ProductService.model.AccessSnapshot;
+import com.afrisol.ProductService.repository.AccessSnapshotRepository;
+import com.afrisol.ProductService.repository.ProductRepository;
+import com.afrisol.ProductService.tenant.TenantIdArgumentResolver;
+import com.afrisol.ProductService.validation.ProductRequestValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Warms the service up before it reports itself ready. Application runners complete before
+ * Spring Boot publishes {@code ReadinessState.ACCEPTING_TRAFFIC}, so blocking here keeps the
+ * readiness probe down until the Mongo pool is open, the hot products are in memory and the
+ * JSON, validation and controller paths have been compiled by the JIT. The controller requests
+ * carry {@link WarmUpMarker#WARM_UP_HEADER} so the tenant quota and the access tracker leave them out.
+ * A native image has no JIT to train, so there only the connections and hot products are waited for.
+ */
+@Slf4j
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final String WARMUP_PRODUCT_ID = "warmup";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ProductRepository productRepository;
+    private final AccessSnapshotRepository accessSnapshotRepository;
+    private final ProductCache productCache;
+    private final ObjectMapper objectMapper;
+    private final ProductRequestValidator productRequestValidator;
+    private final WebClient.Builder webClientBuilder;
+    private final Environment environment;
+    private final boolean enabled;
+    private final int connections;
+    private final int hotProducts;
+    private final int iterations;
+    private final Duration timeout;
+    private final String defaultTenantId;
+
+    public WarmUpRunner(ReactiveMongoTemplate mongoTemplate,
+                        ProductRepository productRepository,
+                        AccessSnapshotRepository accessSnapshotRepository,
+                        ProductCache productCache,
+                        ObjectMapper objectMapper,
+                        ProductRequestValidator productRequestValidator,
+                        WebClient.Builder webClientBuilder,
+                        Environment environment,
+                        @Value("${product.warmup.enabled:true}") boolean enabled,
+                        @Value("${product.warmup.connections:10}") int connections,
+                        @Value("${product.warmup.hot-products:1000}") int hotProducts,
+                        @Value("${product.warmup.iterations:500}") int iterations,
+                        @Value("${product.warmup.timeout:30s}") Duration timeout,
+                        @Value("${product.tenant.default-id:default}") String defaultTenantId) {
+        this.mongoTemplate = mongoTemplate;
+        this.productRepository = productRepository;
+        this.accessSnapshotRepository = accessSnapshotRepository;
+        this.productCache = productCache;
+        this.objectMapper = objectMapper;
+        this.productRequestValidator = productRequestValidator;
+        this.webClientBuilder = webClientBuilder;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.connections = connections;
+        this.hotProducts = hotProducts;
+        this.iterations = iterations;
+        this.timeout = timeout;
+        this.defaultTenantId = defaultTenantId;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Checked here rather than by a bean condition, which a native image would fix at build time
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        boolean primeJit = !NativeDetector.inNativeImage();
+        try {
+            if (primeJit) {
+                primeCodecs();
+            }
+            Mono<List<AccessSnapshot.Entry>> hotProductEntries = hotProductEntries().cache();
+            Mono.when(openConnections(), hotProductEntries.flatMap(this::preloadHotProducts))
+                    .then(primeJit ? hotProductEntries.flatMap(this::exerciseControllers) : Mono.empty())
+                    .block(timeout);
+            log.info("Warm-up finished in {} ms", Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (RuntimeException | IOException e) {
+            // A failed warm-up only costs latency, it must not keep the service from starting
+            log.warn("Warm-up did not complete after {} ms: {}", Duration.ofNanos(System.nanoTime() - start).toMillis(), e.getMessage());
+        }
+    }
+
+    private void primeCodecs() throws IOException {
+        ProductRequestDto request = ProductRequestDto.builder()
+                .name("Warm-up Product")
+                .description("Warm-up Description")
+                .type("Warmup")
+                .price(100.0)
+                .quantity(1)
+                .build();
+        ProductResponseDto response = ProductResponseDto.builder()
+                .id(WARMUP_PRODUCT_ID)
+                .name(request.getName())
+                .description(request.getDescription())
+                .type(request.getType())
+                .price(request.getPrice())
+                .quantity(request.getQuantity())
+                .build();
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.readValue(objectMapper.writeValueAsBytes(request), ProductRequestDto.class);
+            objectMapper.readValue(objectMapper.writeValueAsBytes(response), ProductResponseDto.class);
+            productRequestValidator.validate(request).block();
+        }
+    }
+
+    private Mono<Void> openConnections() {
+        // Concurrent pings force the driver to open that many pooled connections
+        return Flux.range(0, connections)
+                .flatMap(i -> mongoTemplate.executeCommand(new Document("ping", 1)), connections)
+                .then();
+    }
+
+    private Mono<List<AccessSnapshot.Entry>> hotProductEntries() {
+        // Every replica saves its own snapshot, summing them estimates the reads across the cluster
+        return accessSnapshotRepository.findAll()
+                .flatMapIterable(AccessSnapshot::getEntries)
+                // Snapshots taken before tenants were introduced only hold default tenant products
+                .map(entry -> entry.getTenantId() != null ? entry
+                        : new AccessSnapshot.Entry(defaultTenantId, entry.getProductId(), entry.getCount()))
+                .collect(Collectors.toMap(entry -> List.of(entry.getTenantId(), entry.getProductId()), Function.identity(),
+                        (first, second) -> new AccessSnapshot.Entry(first.getTenantId(), first.getProductId(),
+                                first.getCount() + second.getCount())))
+                .map(entries -> entries.values().stream()
+                        .sorted(Comparator.comparingLong(AccessSnapshot.Entry::getCount).reversed())
+                        .limit(hotProducts)
+                        .toList());
+    }
+
+    private Mono<Void> preloadHotProducts(List<AccessSnapshot.Entry> entries) {
+        long readStartedAt = System.currentTimeMillis();
+        return productRepository.findAllById(entries.stream().map(AccessSnapshot.Entry::getProductId).toList())
+                .filter(product -> !product.isDeleted())
+                .concatMap(product -> productCache.fill(product, readStartedAt).thenReturn(product))
+                .count()
+                .doOnNext(count -> log.info("Preloaded {} hot products", count))
+                .then();
+    }
+
+    private Mono<Void> exerciseControllers(List<AccessSnapshot.Entry> hotProductEntries) {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null) {
+            return Mono.empty();
+        }
+        // Requests for an unknown ID warm the not-found path, hot IDs the found path
+        List<AccessSnapshot.Entry> requests = new ArrayList<>(hotProductEntries);
+        requests.add(new AccessSnapshot.Entry(defaultTenantId, WARMUP_PRODUCT_ID, 0));
+        WebClient webClient = webClientBuilder.baseUrl("http://localhost:" + port).build();
+        return Flux.range(0, iterations)
+                .map(i -> requests.get(i % requests.size()))
+                .flatMap(request -> webClient.get()
+                        .uri("/api/v1/products/{productId}", request.getProductId())
+                        .header(TenantIdArgumentResolver.TENANT_HEADER, request.getTenantId())
+                        .header(WarmUpMarker.WARM_UP_HEADER, WarmUpMarker.WARM_UP_TOKEN)
+                        .exchangeToMono(ClientResponse::releaseBody), connections)
+                .then();
+    }
+}
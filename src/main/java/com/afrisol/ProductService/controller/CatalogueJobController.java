@@ -0,0 +1,51 @@
+package com.afrisol.ProductService.controller;
+
+import com.afrisol.ProductService.dto.JobRequestDto;
+import com.afrisol.ProductService.dto.JobResponseDto;
+import com.afrisol.ProductService.service.CatalogueJobService;
+import com.afrisol.ProductService.tenant.TenantId;
+import com.afrisol.ProductService.validation.ProductRequestValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("api/v1/jobs")
+@Slf4j
+public class CatalogueJobController {
+    private final CatalogueJobService catalogueJobService;
+    private final ProductRequestValidator productRequestValidator;
+
+    public CatalogueJobController(CatalogueJobService catalogueJobService, ProductRequestValidator productRequestValidator) {
+        this.catalogueJobService = catalogueJobService;
+        this.productRequestValidator = productRequestValidator;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<JobResponseDto>> submitJob(@RequestBody JobRequestDto jobDto, @TenantId String tenantId) {
+        String requestID = UUID.randomUUID().toString();
+        log.info("Submitting {} job for product type: {} and requestID {}", jobDto.getType(), jobDto.getProductType(), requestID);
+        return productRequestValidator.validate(jobDto)
+                .flatMap(validJob -> catalogueJobService.submitJob(validJob, tenantId, requestID))
+                .map(job -> ResponseEntity.accepted().body(job));
+    }
+
+    @GetMapping("/{jobId}")
+    public Mono<ResponseEntity<JobResponseDto>> getJob(@PathVariable String jobId, @TenantId String tenantId) {
+        String requestID = UUID.randomUUID().toString();
+        log.info("Getting job with ID : {} and requestID: {}", jobId, requestID);
+        return catalogueJobService.getJob(jobId, tenantId, requestID)
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public Mono<ResponseEntity<JobResponseDto>> cancelJob(@PathVariable String jobId, @TenantId String tenantId) {
+        String requestID = UUID.randomUUID().toString();
+        log.info("Cancelling job with ID: {} and requestID {}", jobId, requestID);
+        return catalogueJobService.cancelJob(jobId, tenantId, requestID)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -1,17 +1,20 @@
 package com.afrisol.ProductService.controller;
 
+import com.afrisol.ProductService.dto.PopularProductDto;
+import com.afrisol.ProductService.dto.PriceHistoryPointDto;
 import com.afrisol.ProductService.dto.ProductRequestDto;
 import com.afrisol.ProductService.dto.ProductResponseDto;
-import com.afrisol.ProductService.exception.ProductNotFoundException;
 import com.afrisol.ProductService.service.ProductService;
-import jakarta.validation.Valid;
+import com.afrisol.ProductService.tenant.TenantId;
+import com.afrisol.ProductService.validation.ProductRequestValidator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Map;
+import java.time.Instant;
 import java.util.UUID;
 
 @RestController
@@ -19,66 +22,82 @@ import java.util.UUID;
 @Slf4j
 public class ProductController {
     private final ProductService productService;
+    private final ProductRequestValidator productRequestValidator;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductRequestValidator productRequestValidator) {
         this.productService = productService;
+        this.productRequestValidator = productRequestValidator;
     }
 
     @GetMapping
-    public Flux<ProductResponseDto> getAllProducts() {
+    public Flux<ProductResponseDto> getAllProducts(@TenantId String tenantId) {
         String requestID = UUID.randomUUID().toString();
         log.info("Getting all products : {}", requestID);
-        return productService.getAllProducts(requestID);
+        return productService.getAllProducts(tenantId, requestID);
+    }
+
+    @GetMapping("/popular")
+    public Flux<PopularProductDto> getPopularProducts(@RequestParam(defaultValue = "10") int limit, @TenantId String tenantId) {
+        String requestID = UUID.randomUUID().toString();
+        log.info("Getting top {} popular products : {}", limit, requestID);
+        return productService.getPopularProducts(limit, tenantId, requestID);
     }
 
     @GetMapping("/{productId}")
-    public Mono<ResponseEntity<ProductResponseDto>> getProduct(@PathVariable @Valid String productId) {
+    public Mono<ResponseEntity<ProductResponseDto>> getProduct(@PathVariable String productId, @TenantId String tenantId) {
         String requestID = UUID.randomUUID().toString();
         log.info("Getting product with ID : {} and requestID: {}", productId, requestID);
-        return productService.getProduct(productId, requestID)
-                .map(ResponseEntity::ok)
-                .onErrorResume(ProductNotFoundException.class, ex -> {
-                    log.error("Product not found: {}", ex.getMessage());
-                    return Mono.just(ResponseEntity.status(404).body(null));
-                })
-                .onErrorResume(RuntimeException.class, ex -> {
-                    log.error("Unhandled RuntimeException: {}", ex.getMessage());
-                    return Mono.just(ResponseEntity.status(400).body(null));
-                });
+        return productService.getProduct(productId, tenantId, requestID)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{productId}/history")
+    public Flux<PriceHistoryPointDto> getPriceHistory(
+            @PathVariable String productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @TenantId String tenantId) {
+        String requestID = UUID.randomUUID().toString();
+        log.info("Getting price history for product with ID: {} and requestID: {}", productId, requestID);
+        return productService.getPriceHistory(productId, from, to, tenantId, requestID);
     }
 
     @PostMapping
-    public Mono<ResponseEntity<ProductResponseDto>> addProduct(@RequestBody @Valid ProductRequestDto productDto) {
+    public Mono<ResponseEntity<ProductResponseDto>> addProduct(@RequestBody ProductRequestDto productDto, @TenantId String tenantId) {
         String requestID = UUID.randomUUID().toString();
         log.info("Adding product with name: {} and requestID {}", productDto.getName(), requestID);
-        return productService.addProduct(productDto, requestID)
+        return productRequestValidator.validate(productDto)
+                .flatMap(validProduct -> productService.addProduct(validProduct, tenantId, requestID))
                 .map(ResponseEntity::ok);
     }
 
     @PutMapping("/{productId}")
     public Mono<ResponseEntity<ProductResponseDto>> updateProduct(
             @PathVariable String productId,
-            @RequestBody @Valid ProductRequestDto productDto) {
+            @RequestBody ProductRequestDto productDto,
+            @TenantId String tenantId) {
         String requestID = UUID.randomUUID().toString();
         log.info("Updating product with ID: {} and requestID {}", productId, requestID);
-        return productService.updateProduct(productDto, productId, requestID)
+        return productRequestValidator.validate(productDto)
+                .flatMap(validProduct -> productService.updateProduct(validProduct, productId, tenantId, requestID))
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{productId}")
-    public Mono<ResponseEntity<Object>> deleteProduct(@PathVariable String productId) {
+    public Mono<ResponseEntity<Object>> deleteProduct(@PathVariable String productId, @TenantId String tenantId) {
         String requestID = UUID.randomUUID().toString();
         log.info("Deleting product with ID: {} and requestID {}", productId, requestID);
-        return productService.deleteProduct(productId, requestID)
-                .then(Mono.just(ResponseEntity.noContent().<Object>build())) // Success: 204 No Content
-                .onErrorResume(e -> {
-                    log.error("Error deleting product with ID: {} - {}", productId, e.getMessage(), e);
-                    if (e instanceof ProductNotFoundException) {
-                        return Mono.just(ResponseEntity.status(404).body(Map.of("error", e.getMessage())));
-                    }
-                    return Mono.just(ResponseEntity.status(500).body(Map.of("error", "Internal Server Error")));
-                });
+        return productService.deleteProduct(productId, tenantId, requestID)
+                .then(Mono.just(ResponseEntity.noContent().<Object>build())); // Success: 204 No Content
+    }
+
+    @PostMapping("/{productId}/restore")
+    public Mono<ResponseEntity<ProductResponseDto>> restoreProduct(@PathVariable String productId, @TenantId String tenantId) {
+        String requestID = UUID.randomUUID().toString();
+        log.info("Restoring product with ID: {} and requestID {}", productId, requestID);
+        return productService.restoreProduct(productId, tenantId, requestID)
+                .map(ResponseEntity::ok);
     }
 
 }
@@ -0,0 +1,26 @@
+package com.afrisol.ProductService.dto;
+
+import com.afrisol.ProductService.model.JobType;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobRequestDto {
+
+    @NotNull(message = "Job type cannot be null")
+    private JobType type;
+
+    @NotBlank(message = "Product type cannot be blank")
+    @Pattern(regexp = "^[A-Za-z\\s]+$", message = "Product type can only contain letters and spaces")
+    private String productType;
+
+    @DecimalMin(value = "-100.0", inclusive = false, message = "Percentage must be greater than -100")
+    @DecimalMax(value = "1000.0", message = "Percentage must not exceed 1000")
+    private Double percentage;
+}
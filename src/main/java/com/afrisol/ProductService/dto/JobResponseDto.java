@@ -0,0 +1,37 @@
+package com.afrisol.ProductService.dto;
+
+import com.afrisol.ProductService.model.JobStatus;
+import com.afrisol.ProductService.model.JobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobResponseDto {
+
+    private String id;
+
+    private JobType type;
+
+    private JobStatus status;
+
+    private String productType;
+
+    private Double percentage;
+
+    private long total;
+
+    private long processed;
+
+    private String error;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+}
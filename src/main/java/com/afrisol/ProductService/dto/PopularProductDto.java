@@ -0,0 +1,21 @@
+package com.afrisol.ProductService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PopularProductDto {
+
+    private String productId;
+
+    // Reads that still count after the halvings so far, they stand for the last one to two decay intervals
+    private long estimatedCount;
+
+    // The count over the seconds of reads it stands for, the recent rate of a steadily read product
+    private double requestsPerSecond;
+}
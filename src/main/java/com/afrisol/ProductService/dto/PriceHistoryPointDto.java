@@ -0,0 +1,21 @@
+package com.afrisol.ProductService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceHistoryPointDto {
+
+    private Instant timestamp;
+
+    private Double price;
+
+    private int quantity;
+}
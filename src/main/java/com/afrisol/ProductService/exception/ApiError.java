@@ -0,0 +1,11 @@
+package com.afrisol.ProductService.exception;
+
+/**
+ * Error body returned by {@link GlobalExceptionHandler}. The timestamp is epoch milliseconds.
+ */
+public record ApiError(String error, long timestamp) {
+
+    public static ApiError of(String error) {
+        return new ApiError(error, System.currentTimeMillis());
+    }
+}
@@ -5,11 +5,12 @@ import org.springframework.http.HttpStatus;
 public class CustomException extends RuntimeException {
     private final HttpStatus status;
     public CustomException(HttpStatus status, String message) {
-        super(message);
+        // Carries an expected client error, the stack trace would never be looked at
+        super(message, null, false, false);
         this.status = status;
     }
 
     public HttpStatus getStatus() {
         return  status;
     }
-}
\ No newline at end of file
+}
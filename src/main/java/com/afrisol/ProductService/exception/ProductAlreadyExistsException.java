@@ -1,7 +1,12 @@
 package com.afrisol.ProductService.exception;
 
+/**
+ * Signals an expected conflict, so no stack trace is captured and {@link #INSTANCE} can be shared.
+ */
 public class ProductAlreadyExistsException extends RuntimeException {
+    public static final ProductAlreadyExistsException INSTANCE = new ProductAlreadyExistsException("Product already exists");
+
     public ProductAlreadyExistsException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -1,7 +1,13 @@
 package com.afrisol.ProductService.exception;
 
+/**
+ * Signals an expected miss, so no stack trace is captured. Without a stack trace and with
+ * suppression disabled the exception is immutable, which lets {@link #INSTANCE} be shared.
+ */
 public class ProductNotFoundException extends RuntimeException {
+    public static final ProductNotFoundException INSTANCE = new ProductNotFoundException("Product not found");
+
     public ProductNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
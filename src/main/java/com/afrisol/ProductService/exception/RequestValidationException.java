@@ -0,0 +1,20 @@
+package com.afrisol.ProductService.exception;
+
+import java.util.Map;
+
+/**
+ * Carries the field errors of a request body that failed validation. Like the other expected
+ * errors it captures no stack trace.
+ */
+public class RequestValidationException extends RuntimeException {
+    private final Map<String, String> fieldErrors;
+
+    public RequestValidationException(Map<String, String> fieldErrors) {
+        super("Request validation failed: " + fieldErrors.keySet(), null, false, false);
+        this.fieldErrors = Map.copyOf(fieldErrors);
+    }
+
+    public Map<String, String> getFieldErrors() {
+        return fieldErrors;
+    }
+}
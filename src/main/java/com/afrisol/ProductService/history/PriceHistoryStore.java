@@ -0,0 +1,91 @@
+package com.afrisol.ProductService.history;
+
+import com.afrisol.ProductService.model.PriceHistoryBucket;
+import com.afrisol.ProductService.model.Product;
+import com.afrisol.ProductService.repository.PriceHistoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Appends price and stock changes to bucket documents of one product and one UTC day. Appends are
+ * meant to join the transaction of the product write, so a change has a point if and only if it
+ * committed, stamped with the time of the write. A bucket is picked by the product's
+ * {@code sequence}, which the same transaction increments: a block of
+ * {@code product.history.bucket-capacity} changes shares a bucket, so a bucket never outgrows it
+ * and the {@code $push} upsert needs neither a read nor an overflow check. Concurrent writes of a
+ * product conflict on the product document, so they never race on its buckets either.
+ */
+@Component
+public class PriceHistoryStore {
+
+    private static final DateTimeFormatter BUCKET_DAY = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+    // Sorts after every bucket of the day
+    private static final String LAST_OF_DAY = ":~";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final int bucketCapacity;
+
+    public PriceHistoryStore(ReactiveMongoTemplate mongoTemplate,
+                             PriceHistoryRepository priceHistoryRepository,
+                             @Value("${product.history.bucket-capacity:1000}") int bucketCapacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.bucketCapacity = bucketCapacity;
+    }
+
+    public Mono<Void> append(Product product, Instant at) {
+        return mongoTemplate.upsert(bucketOf(product, at), pointOf(product, at), PriceHistoryBucket.class).then();
+    }
+
+    // One round trip for a whole catalogue job chunk
+    public Mono<Void> appendAll(List<Product> products, Instant at) {
+        if (products.isEmpty()) {
+            return Mono.empty();
+        }
+        ReactiveBulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceHistoryBucket.class);
+        products.forEach(product -> bulkOps.upsert(bucketOf(product, at), pointOf(product, at)));
+        return bulkOps.execute().then();
+    }
+
+    public Flux<PriceHistoryBucket.Point> find(String productId, Instant from, Instant to) {
+        return priceHistoryRepository.findBuckets(productId, bucketId(productId, from), bucketId(productId, to) + LAST_OF_DAY)
+                .concatMapIterable(PriceHistoryBucket::getPoints)
+                .filter(point -> !point.getAt().isBefore(from) && !point.getAt().isAfter(to));
+    }
+
+    private Query bucketOf(Product product, Instant at) {
+        return Query.query(Criteria.where("_id").is(blockId(bucketId(product.getProductId(), at), product.getSequence() / bucketCapacity)));
+    }
+
+    private static Update pointOf(Product product, Instant at) {
+        return new Update()
+                .setOnInsert("productId", product.getProductId())
+                .setOnInsert("day", at.truncatedTo(ChronoUnit.DAYS))
+                .inc("count", 1)
+                .push("points", new PriceHistoryBucket.Point(at, product.getPrice(), product.getQuantity()));
+    }
+
+    static String blockId(String bucketId, long block) {
+        // Zero padded, so the blocks of a day sort in change order and before the next day
+        return bucketId + String.format(":%010d", block);
+    }
+
+    static String bucketId(String productId, Instant at) {
+        return productId + ":" + BUCKET_DAY.format(at);
+    }
+}
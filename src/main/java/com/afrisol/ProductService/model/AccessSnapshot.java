@@ -0,0 +1,39 @@
+package com.afrisol.ProductService.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+@Document(collection = "product_access_snapshots")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccessSnapshot {
+    // Each replica saves its own snapshot under this prefix, warm-up sums all of them
+    public static final String HOT_PRODUCTS = "hot-products";
+
+    @Id
+    private String snapshotId;
+
+    private List<Entry> entries;
+
+    private Instant takenAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Entry {
+        private String tenantId;
+
+        private String productId;
+
+        private long count;
+    }
+}
@@ -0,0 +1,50 @@
+package com.afrisol.ProductService.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "catalogue_jobs")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogueJob {
+    @Id
+    private String jobId;
+
+    private String tenantId;
+
+    private JobType type;
+
+    private JobStatus status;
+
+    // Products of this type are the target of the job
+    private String productType;
+
+    // Price change in percent, only used by REPRICE jobs
+    private Double percentage;
+
+    private long total;
+
+    private long processed;
+
+    // ID of the last product of the last completed chunk, used to resume after a restart
+    private String checkpoint;
+
+    private String error;
+
+    // Replica running the job, it keeps the job until its lease expires without being renewed
+    private String owner;
+
+    private Instant leaseExpiresAt;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,9 @@
+package com.afrisol.ProductService.model;
+
+public enum JobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -0,0 +1,6 @@
+package com.afrisol.ProductService.model;
+
+public enum JobType {
+    REPRICE,
+    DELETE
+}
@@ -0,0 +1,43 @@
+package com.afrisol.ProductService.model;
+
+import com.afrisol.ProductService.dto.ProductResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A product change waiting to be published. It is inserted in the same transaction as the change
+ * itself and removed once the relay has handed it to the publisher.
+ */
+@Document(collection = "product_outbox")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+    // Also the dedupe key, an event delivered more than once always carries the same ID
+    @Id
+    private String eventId;
+
+    private String tenantId;
+
+    private String productId;
+
+    // The product's sequence after the change, written in the same transaction. createdAt comes from
+    // the clock of the writing replica, consumers order a product's events by this instead
+    private long sequence;
+
+    private ProductEventType type;
+
+    // State of the product after the change, null for deletes
+    private ProductResponseDto product;
+
+    private String requestId;
+
+    private Instant createdAt;
+}
@@ -0,0 +1,52 @@
+package com.afrisol.ProductService.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Price and stock changes of one product during one UTC day. The ID is
+ * {@code productId:yyyyMMdd:block}, the block being the product's change sequence divided by the
+ * bucket capacity, so a range of days is a range scan on {@code _id} and needs no secondary index.
+ */
+@Document(collection = "product_price_history")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceHistoryBucket {
+    @Id
+    private String bucketId;
+
+    private String productId;
+
+    // Start of the UTC day covered by this bucket
+    private Instant day;
+
+    // Points in this bucket
+    private long count;
+
+    private List<Point> points;
+
+    // Short field names, every change of the day repeats them
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Point {
+        @Field("t")
+        private Instant at;
+
+        @Field("p")
+        private Double price;
+
+        @Field("q")
+        private int quantity;
+    }
+}
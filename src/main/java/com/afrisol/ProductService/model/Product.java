@@ -7,8 +7,17 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Sharded;
+
+import java.time.Instant;
 
 @Document(collection = "products")
+// Tenant-scoped reads target the shards holding the tenant, and the ID splits a large tenant
+// into chunks that can move apart instead of one jumbo chunk. Names are kept unique by
+// product_names, since a unique index here would have to start with this key. Neither field
+// changes after insert, saves need not read them first. Only takes effect once the collection is
+// sharded with sh.shardCollection("<db>.products", { tenantId: 1, _id: 1 })
+@Sharded(shardKey = {"tenantId", "_id"}, immutableKey = true)
 @Data
 @Builder
 @AllArgsConstructor
@@ -17,6 +26,9 @@ public class Product {
     @Id
     private String productId;
 
+    // Every query is scoped by tenant, indexes on this collection start with this field
+    private String tenantId;
+
     @NotBlank(message = "Product name cannot be blank")
     @Size(max = 100, message = "Product name must not exceed 100 characters")
     private String name;
@@ -35,4 +47,15 @@ public class Product {
 
     @Min(value = 0, message = "Quantity cannot be negative")
     private int quantity;
+
+    // Deleted products are kept as tombstones until the TTL index on deletedAt purges them
+    private boolean deleted;
+
+    private Instant deletedAt;
+
+    // Number of changes so far, incremented in the transaction of every write to the product
+    private long sequence;
+
+    // Last catalogue job applied to this product, a resumed job skips products that carry its ID
+    private String lastJobId;
 }
@@ -0,0 +1,8 @@
+package com.afrisol.ProductService.model;
+
+public enum ProductEventType {
+    PRODUCT_ADDED,
+    PRODUCT_UPDATED,
+    PRODUCT_DELETED,
+    PRODUCT_RESTORED
+}
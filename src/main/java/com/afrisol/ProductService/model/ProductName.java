@@ -0,0 +1,25 @@
+package com.afrisol.ProductService.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// The name a live product holds within its tenant. Products are sharded on a key a unique name
+// index could not start with, so a unique index on this collection keeps names unique instead;
+// it is written in the transaction of every product write that takes or gives up a name
+@Document(collection = "product_names")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductName {
+    @Id
+    private String productId;
+
+    private String tenantId;
+
+    private String name;
+}
@@ -0,0 +1,16 @@
+package com.afrisol.ProductService.outbox;
+
+import com.afrisol.ProductService.model.OutboxEvent;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Destination of product events. {@link #publish} completes once the whole batch has been
+ * accepted for good. When it fails, or the relay stops before removing the batch from the outbox,
+ * the same events are published again, so consumers drop repeats by {@link OutboxEvent#getEventId()}.
+ */
+public interface EventPublisher {
+
+    Mono<Void> publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,39 @@
+package com.afrisol.ProductService.outbox;
+
+import com.afrisol.ProductService.model.OutboxEvent;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps published events in memory, for tests and local runs. Repeated deliveries are counted but
+ * collapsed by event ID, the way a consumer would see them.
+ */
+public class InMemoryEventPublisher implements EventPublisher {
+
+    private final Map<String, OutboxEvent> events = new LinkedHashMap<>();
+    private long deliveries;
+
+    @Override
+    public Mono<Void> publish(List<OutboxEvent> batch) {
+        return Mono.fromRunnable(() -> {
+            synchronized (this) {
+                for (OutboxEvent event : batch) {
+                    events.putIfAbsent(event.getEventId(), event);
+                    deliveries++;
+                }
+            }
+        });
+    }
+
+    public synchronized List<OutboxEvent> events() {
+        return new ArrayList<>(events.values());
+    }
+
+    public synchronized long deliveries() {
+        return deliveries;
+    }
+}
@@ -0,0 +1,48 @@
+package com.afrisol.ProductService.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    // Mongo transactions need a replica set or a sharded cluster, a single-node replica set will do
+    @Bean
+    public ReactiveMongoTransactionManager transactionManager(ReactiveMongoDatabaseFactory databaseFactory) {
+        return new ReactiveMongoTransactionManager(databaseFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveTransactionManager transactionManager) {
+        return TransactionalOperator.create(transactionManager);
+    }
+
+    // Chosen at runtime rather than by a condition, which a native image would fix at build time
+    @Bean
+    public EventPublisher eventPublisher(@Value("${product.outbox.publisher:}") String publisher,
+                                         @Value("${product.outbox.file.path:}") String filePath,
+                                         ObjectMapper objectMapper) throws IOException {
+        return switch (publisher) {
+            // The relay does not poll without a publisher; should it publish anyway, the events stay in the outbox
+            case "" -> events -> Mono.error(new IllegalStateException("product.outbox.publisher is not set"));
+            case "memory" -> new InMemoryEventPublisher();
+            case "file" -> {
+                if (filePath.isBlank()) {
+                    throw new IllegalArgumentException("product.outbox.file.path is required by the file publisher");
+                }
+                yield new FileEventPublisher(Path.of(filePath), objectMapper);
+            }
+            default -> throw new IllegalArgumentException("Unknown product.outbox.publisher: " + publisher);
+        };
+    }
+}
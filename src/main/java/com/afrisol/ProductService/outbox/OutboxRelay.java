@@ -0,0 +1,189 @@
+package com.afrisol.ProductService.outbox;
+
+import com.afrisol.ProductService.model.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Moves events from the outbox to the {@link EventPublisher}, oldest first and in batches. A batch
+ * is removed from the outbox only after it has been published, so a crash in between publishes it
+ * again. Only the replica holding the relay lease publishes; the lease passes to another replica
+ * once its holder stops renewing it. {@code createdAt} comes from the clock of the replica that
+ * wrote the event, so within a batch the events of a product are put in {@code sequence} order;
+ * consumers drop an event whose sequence is not above the last one they applied for its product.
+ * The relay only polls when a publisher is configured. Until then events stay in the outbox and
+ * the backlog is logged as a warning every {@code product.outbox.backlog-check-interval}.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final String LEASE_COLLECTION = "product_outbox_lease";
+    private static final String LEASE_ID = "relay";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final EventPublisher eventPublisher;
+    private final int batchSize;
+    private final Duration leaseDuration;
+    private final boolean enabled;
+    private final String owner = UUID.randomUUID().toString();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+    private final Timer relayLag;
+    private final Counter publishedEvents;
+    private final Counter failedBatches;
+
+    public OutboxRelay(ReactiveMongoTemplate mongoTemplate,
+                       EventPublisher eventPublisher,
+                       MeterRegistry meterRegistry,
+                       @Value("${product.outbox.publisher:}") String publisher,
+                       @Value("${product.outbox.batch-size:500}") int batchSize,
+                       @Value("${product.outbox.lease-duration:PT30S}") Duration leaseDuration) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.leaseDuration = leaseDuration;
+        this.enabled = !publisher.isBlank();
+        if (!enabled) {
+            log.warn("No product.outbox.publisher is set, product events are recorded but never published "
+                    + "and the outbox grows until one is set");
+        }
+        this.relayLag = Timer.builder("product.outbox.relay.lag")
+                .description("Time from writing an event to the outbox to publishing it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.publishedEvents = Counter.builder("product.outbox.published").register(meterRegistry);
+        this.failedBatches = Counter.builder("product.outbox.failures").register(meterRegistry);
+        // Zero on replicas that do not hold the lease, take the maximum across replicas
+        Gauge.builder("product.outbox.oldest.age", oldestPendingMillis, millis -> millis.get() / 1000.0)
+                .description("Age of the oldest event waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${product.outbox.poll-interval:PT1S}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        // A slow publish outlasts the poll interval, polls that overlap it are skipped
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        drain()
+                .doFinally(signal -> running.set(false))
+                .subscribe(count -> {
+                    if (count > 0) {
+                        log.debug("Relayed {} outbox events", count);
+                    }
+                }, e -> log.warn("Outbox relay stopped, retrying on the next poll: {}", e.getMessage()));
+    }
+
+    @Scheduled(fixedDelayString = "${product.outbox.backlog-check-interval:PT5M}")
+    public void checkUnpublishedBacklog() {
+        if (enabled) {
+            return;
+        }
+        unpublishedBacklog().subscribe(backlog -> log.warn(
+                        "{} product events are waiting in the outbox, the oldest since {}; set product.outbox.publisher to publish them",
+                        backlog, Instant.now().minusMillis(oldestPendingMillis.get())),
+                e -> log.warn("Could not check the outbox backlog: {}", e.getMessage()));
+    }
+
+    // Also feeds the oldest-age gauge, which would otherwise stay at zero without a publisher
+    Mono<Long> unpublishedBacklog() {
+        Query oldest = new Query().with(Sort.by(Sort.Direction.ASC, "createdAt")).limit(1);
+        return mongoTemplate.findOne(oldest, OutboxEvent.class)
+                .flatMap(event -> {
+                    oldestPendingMillis.set(Duration.between(event.getCreatedAt(), Instant.now()).toMillis());
+                    return mongoTemplate.estimatedCount(OutboxEvent.class);
+                });
+    }
+
+    Mono<Long> drain() {
+        // The lease is renewed before every batch, a replica that lost it stops after the current one
+        return acquireLease()
+                .flatMap(held -> {
+                    if (!held) {
+                        oldestPendingMillis.set(0);
+                        return Mono.just(0);
+                    }
+                    return relayBatch();
+                })
+                .repeat()
+                .takeUntil(count -> count < batchSize)
+                .reduce(0L, (total, count) -> total + count);
+    }
+
+    private Mono<Boolean> acquireLease() {
+        Instant now = Instant.now();
+        Query lease = Query.query(Criteria.where("_id").is(LEASE_ID)
+                .orOperator(Criteria.where("owner").is(owner), Criteria.where("expiresAt").lt(now)));
+        return mongoTemplate.findAndModify(lease,
+                        new Update().set("owner", owner).set("expiresAt", now.plus(leaseDuration)),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        Document.class, LEASE_COLLECTION)
+                .map(acquired -> true)
+                .defaultIfEmpty(false)
+                // The lease is held by another replica, the upsert then collides with its document
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+
+    private Mono<Integer> relayBatch() {
+        Query oldestFirst = new Query().with(Sort.by(Sort.Direction.ASC, "createdAt", "_id")).limit(batchSize);
+        return mongoTemplate.find(oldestFirst, OutboxEvent.class)
+                .collectList()
+                .flatMap(batch -> {
+                    if (batch.isEmpty()) {
+                        oldestPendingMillis.set(0);
+                        return Mono.just(0);
+                    }
+                    oldestPendingMillis.set(Duration.between(batch.get(0).getCreatedAt(), Instant.now()).toMillis());
+                    List<String> eventIds = batch.stream().map(OutboxEvent::getEventId).toList();
+                    return eventPublisher.publish(inProductOrder(batch))
+                            .doOnError(e -> failedBatches.increment())
+                            .then(mongoTemplate.remove(Query.query(Criteria.where("_id").in(eventIds)), OutboxEvent.class))
+                            .doOnSuccess(removed -> {
+                                Instant published = Instant.now();
+                                batch.forEach(event -> relayLag.record(Duration.between(event.getCreatedAt(), published)));
+                                publishedEvents.increment(batch.size());
+                            })
+                            .thenReturn(batch.size());
+                });
+    }
+
+    // Keeps the positions of each product's events in the batch and fills them in sequence order
+    static List<OutboxEvent> inProductOrder(List<OutboxEvent> batch) {
+        Map<String, Deque<OutboxEvent>> bySequence = batch.stream()
+                .sorted(Comparator.comparingLong(OutboxEvent::getSequence))
+                .collect(Collectors.groupingBy(OutboxEvent::getProductId, Collectors.toCollection(ArrayDeque::new)));
+        return batch.stream().map(event -> bySequence.get(event.getProductId()).poll()).toList();
+    }
+}
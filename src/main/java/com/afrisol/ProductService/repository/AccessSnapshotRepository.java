@@ -0,0 +1,7 @@
+package com.afrisol.ProductService.repository;
+
+import com.afrisol.ProductService.model.AccessSnapshot;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface AccessSnapshotRepository extends ReactiveCrudRepository<AccessSnapshot, String> {
+}
@@ -0,0 +1,15 @@
+package com.afrisol.ProductService.repository;
+
+import com.afrisol.ProductService.model.CatalogueJob;
+import com.afrisol.ProductService.model.JobStatus;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface CatalogueJobRepository extends ReactiveCrudRepository<CatalogueJob, String> {
+    Flux<CatalogueJob> findByStatusIn(Collection<JobStatus> statuses);
+
+    Mono<CatalogueJob> findByJobIdAndTenantId(String jobId, String tenantId);
+}
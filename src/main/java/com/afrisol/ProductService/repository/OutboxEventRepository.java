@@ -0,0 +1,7 @@
+package com.afrisol.ProductService.repository;
+
+import com.afrisol.ProductService.model.OutboxEvent;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface OutboxEventRepository extends ReactiveCrudRepository<OutboxEvent, String> {
+}
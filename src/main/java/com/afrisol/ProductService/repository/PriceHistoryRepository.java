@@ -0,0 +1,11 @@
+package com.afrisol.ProductService.repository;
+
+import com.afrisol.ProductService.model.PriceHistoryBucket;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+
+public interface PriceHistoryRepository extends ReactiveCrudRepository<PriceHistoryBucket, String> {
+    @Query(value = "{ '_id': { '$gte': ?1, '$lte': ?2 }, 'productId': ?0 }", sort = "{ '_id': 1 }")
+    Flux<PriceHistoryBucket> findBuckets(String productId, String fromBucketId, String toBucketId);
+}
@@ -0,0 +1,9 @@
+package com.afrisol.ProductService.repository;
+
+import com.afrisol.ProductService.model.ProductName;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface ProductNameRepository extends ReactiveCrudRepository<ProductName, String> {
+    Mono<Boolean> existsByTenantIdAndName(String tenantId, String name);
+}
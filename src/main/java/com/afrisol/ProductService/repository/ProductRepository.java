@@ -1,9 +1,33 @@
 package com.afrisol.ProductService.repository;
 
 import com.afrisol.ProductService.model.Product;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
 public interface ProductRepository extends ReactiveCrudRepository<Product, String> {
-    Mono<Boolean> existsByName(String name);
+    Mono<Boolean> existsByTenantIdAndProductId(String tenantId, String productId);
+
+    Mono<Product> findByTenantIdAndProductId(String tenantId, String productId);
+
+    Mono<Product> findByTenantIdAndProductIdAndDeletedFalse(String tenantId, String productId);
+
+    Flux<Product> findAllByTenantIdAndDeletedFalse(String tenantId);
+
+    @Query("{ '_id': ?1, 'tenantId': ?0, 'deleted': false }")
+    @Update("{ '$set': { 'deleted': true, 'deletedAt': ?2 }, '$inc': { 'sequence': 1 } }")
+    Mono<Long> tombstoneById(String tenantId, String productId, Instant deletedAt);
+
+    // Conditional on the product still being live, so an update racing a delete cannot resurrect the tombstone
+    @Query("{ '_id': ?1, 'tenantId': ?0, 'deleted': false }")
+    @Update("{ '$set': { 'name': ?2, 'description': ?3, 'type': ?4, 'price': ?5, 'quantity': ?6 }, '$inc': { 'sequence': 1 } }")
+    Mono<Long> updateLiveById(String tenantId, String productId, String name, String description, String type, Double price, int quantity);
+
+    @Query("{ '_id': ?1, 'tenantId': ?0, 'deleted': true }")
+    @Update("{ '$set': { 'deleted': false }, '$unset': { 'deletedAt': '' }, '$inc': { 'sequence': 1 } }")
+    Mono<Long> restoreById(String tenantId, String productId);
 }
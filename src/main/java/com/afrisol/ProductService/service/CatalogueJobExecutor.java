@@ -0,0 +1,288 @@
+package com.afrisol.ProductService.service;
+
+import com.afrisol.ProductService.cache.ProductCache;
+import com.afrisol.ProductService.dto.ProductResponseDto;
+import com.afrisol.ProductService.history.PriceHistoryStore;
+import com.afrisol.ProductService.model.CatalogueJob;
+import com.afrisol.ProductService.model.JobStatus;
+import com.afrisol.ProductService.model.OutboxEvent;
+import com.afrisol.ProductService.model.Product;
+import com.afrisol.ProductService.model.ProductEventType;
+import com.afrisol.ProductService.model.ProductName;
+import com.afrisol.ProductService.repository.CatalogueJobRepository;
+import com.afrisol.ProductService.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs catalogue jobs in the background. Matching products are read through a cursor in
+ * {@code _id} order and processed in chunks, each chunk being a single multi-document write.
+ * Up to {@code parallelism} chunks are in flight at once, but checkpoints are always written in
+ * order so an interrupted job can resume from the last completed chunk. Chunks applied after the
+ * last checkpoint are applied again on resume, so every write stamps the products with the job ID
+ * and skips products that already carry it. A job runs on one replica at a time: it is claimed
+ * with a lease that every checkpoint renews, and any replica picks up jobs whose lease expired.
+ * Each chunk write, the outbox events of the products it changes and their price history points
+ * commit in one transaction, like single product writes. Repriced products are read back inside
+ * it for their events and points.
+ */
+@Slf4j
+@Component
+public class CatalogueJobExecutor {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CatalogueJobRepository jobRepository;
+    private final ProductCache productCache;
+    private final PriceHistoryStore priceHistoryStore;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final int chunkSize;
+    private final int parallelism;
+    private final Duration leaseDuration;
+    private final String owner = UUID.randomUUID().toString();
+    private final Map<String, Disposable> runningJobs = new ConcurrentHashMap<>();
+
+    public CatalogueJobExecutor(ReactiveMongoTemplate mongoTemplate,
+                                CatalogueJobRepository jobRepository,
+                                ProductCache productCache,
+                                PriceHistoryStore priceHistoryStore,
+                                OutboxEventRepository outboxEventRepository,
+                                TransactionalOperator transactionalOperator,
+                                @Value("${catalogue.jobs.chunk-size:500}") int chunkSize,
+                                @Value("${catalogue.jobs.parallelism:4}") int parallelism,
+                                @Value("${catalogue.jobs.lease-duration:PT2M}") Duration leaseDuration) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobRepository = jobRepository;
+        this.productCache = productCache;
+        this.priceHistoryStore = priceHistoryStore;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.leaseDuration = leaseDuration;
+    }
+
+    // Also picks up jobs of replicas that stopped, once their lease has expired
+    @Scheduled(fixedDelayString = "${catalogue.jobs.resume-interval:PT1M}")
+    public void resumeInterruptedJobs() {
+        Instant now = Instant.now();
+        jobRepository.findByStatusIn(List.of(JobStatus.PENDING, JobStatus.RUNNING))
+                .filter(job -> !runningJobs.containsKey(job.getJobId()))
+                .filter(job -> job.getLeaseExpiresAt() == null || job.getLeaseExpiresAt().isBefore(now))
+                .subscribe(job -> {
+                    log.info("Resuming job with ID: {} from checkpoint: {}", job.getJobId(), job.getCheckpoint());
+                    start(job);
+                }, e -> log.error("Failed to resume interrupted jobs: {}", e.getMessage(), e));
+    }
+
+    public void start(CatalogueJob job) {
+        Disposable.Swap execution = Disposables.swap();
+        if (runningJobs.putIfAbsent(job.getJobId(), execution) != null) {
+            return;
+        }
+        execution.update(run(job)
+                .doFinally(signal -> runningJobs.remove(job.getJobId(), execution))
+                .subscribe(
+                        finished -> log.info("Job with ID: {} finished with status: {} ({}/{} products)",
+                                finished.getJobId(), finished.getStatus(), finished.getProcessed(), finished.getTotal()),
+                        e -> log.error("Job with ID: {} could not be finalised: {}", job.getJobId(), e.getMessage(), e),
+                        () -> log.debug("Job with ID: {} is running elsewhere or has finished", job.getJobId())));
+    }
+
+    public void cancel(String jobId) {
+        Disposable execution = runningJobs.remove(jobId);
+        if (execution != null) {
+            execution.dispose();
+        }
+    }
+
+    Mono<CatalogueJob> run(CatalogueJob job) {
+        String jobId = job.getJobId();
+        // Nothing happens when another replica holds the lease
+        return claim(job).flatMap(claimed -> productIdChunks(claimed)
+                .flatMapSequential(chunk -> apply(claimed, chunk).thenReturn(chunk), parallelism)
+                .concatMap(chunk -> checkpoint(jobId, chunk))
+                .takeWhile(stillOwned -> stillOwned)
+                .then(Mono.defer(() -> finish(jobId, JobStatus.COMPLETED, null)))
+                .onErrorResume(e -> {
+                    log.error("Job with ID: {} failed: {}", jobId, e.getMessage(), e);
+                    return finish(jobId, JobStatus.FAILED, e.getMessage());
+                }));
+    }
+
+    private Mono<CatalogueJob> claim(CatalogueJob job) {
+        // Only count on the first start, a resumed delete job no longer matches the products it removed
+        Mono<Long> total = job.getStatus() == JobStatus.PENDING
+                ? mongoTemplate.count(Query.query(targetCriteria(job)), Product.class)
+                : Mono.just(job.getTotal());
+        Instant now = Instant.now();
+        return total.flatMap(count -> mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(job.getJobId())
+                        .and("status").in(JobStatus.PENDING, JobStatus.RUNNING)
+                        .orOperator(Criteria.where("owner").is(null),
+                                Criteria.where("owner").is(owner),
+                                Criteria.where("leaseExpiresAt").lt(now))),
+                new Update()
+                        .set("status", JobStatus.RUNNING)
+                        .set("total", count)
+                        .set("owner", owner)
+                        .set("leaseExpiresAt", now.plus(leaseDuration))
+                        .set("updatedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                CatalogueJob.class));
+    }
+
+    private Flux<List<String>> productIdChunks(CatalogueJob job) {
+        Criteria criteria = targetCriteria(job);
+        if (job.getCheckpoint() != null) {
+            criteria = criteria.and("_id").gt(job.getCheckpoint());
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(chunkSize);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Product.class)
+                .map(Product::getProductId)
+                .buffer(chunkSize);
+    }
+
+    private Criteria targetCriteria(CatalogueJob job) {
+        return Criteria.where("tenantId").is(job.getTenantId())
+                .and("type").is(job.getProductType())
+                .and("deleted").is(false);
+    }
+
+    private Mono<Void> apply(CatalogueJob job, List<String> productIds) {
+        // A cancelled job stops here, chunks still queued behind the cursor are not written
+        return isRunning(job.getJobId())
+                .flatMap(running -> running ? write(job, productIds) : Mono.empty());
+    }
+
+    private Mono<Boolean> isRunning(String jobId) {
+        return mongoTemplate.exists(ownedByThisReplica(jobId), CatalogueJob.class);
+    }
+
+    private Query ownedByThisReplica(String jobId) {
+        return Query.query(Criteria.where("_id").is(jobId).and("status").is(JobStatus.RUNNING).and("owner").is(owner));
+    }
+
+    private Mono<Void> write(CatalogueJob job, List<String> productIds) {
+        // Products a previous attempt already changed are skipped, and get neither a second event nor a history point
+        Query pending = Query.query(Criteria.where("_id").in(productIds).and("deleted").is(false).and("lastJobId").ne(job.getJobId()));
+        // The sequence read here is the one the chunk increments, a concurrent write to the product aborts it
+        pending.fields().include("_id").include("sequence");
+        Mono<Void> write = mongoTemplate.find(pending, Product.class)
+                .collectList()
+                .filter(changedProducts -> !changedProducts.isEmpty())
+                .flatMap(changedProducts -> {
+                    List<String> changedIds = changedProducts.stream().map(Product::getProductId).toList();
+                    Query changed = Query.query(Criteria.where("_id").in(changedIds).and("lastJobId").ne(job.getJobId()));
+                    return switch (job.getType()) {
+                        case REPRICE -> reprice(job, changed, changedIds);
+                        case DELETE -> delete(job, changed, changedProducts);
+                    };
+                })
+                .as(transactionalOperator::transactional)
+                // A product edited through the API at the same time aborts the chunk, which is run again rather than failing the job
+                .retryWhen(TransactionRetry.transientErrors());
+        return write
+                .thenMany(Flux.fromIterable(productIds))
+                .flatMap(productCache::evict)
+                .then();
+    }
+
+    private Mono<Void> reprice(CatalogueJob job, Query changed, List<String> changedIds) {
+        double factor = 1 + job.getPercentage() / 100;
+        AggregationUpdate reprice = AggregationUpdate.update()
+                .set("price").toValueOf(ArithmeticOperators.Round
+                        .roundValueOf(ArithmeticOperators.Multiply.valueOf("price").multiplyBy(factor))
+                        .place(2))
+                // Products written before the sequence existed have none, $add would leave it null
+                .set("sequence").toValueOf(ArithmeticOperators.Add
+                        .valueOf(ConditionalOperators.ifNull("sequence").then(0))
+                        .add(1))
+                .set("lastJobId").toValue(job.getJobId());
+        return mongoTemplate.updateMulti(changed, reprice, Product.class)
+                .thenMany(mongoTemplate.find(Query.query(Criteria.where("_id").in(changedIds)), Product.class))
+                .collectList()
+                .flatMap(repriced -> outboxEventRepository.saveAll(Flux.fromIterable(repriced)
+                                .map(product -> event(job, ProductEventType.PRODUCT_UPDATED, product.getProductId(),
+                                        product.getSequence(), ProductServiceImpl.mapToProductResponseDto(product))))
+                        .then(priceHistoryStore.appendAll(repriced, Instant.now())));
+    }
+
+    private Mono<Void> delete(CatalogueJob job, Query changed, List<Product> changedProducts) {
+        return mongoTemplate.updateMulti(changed,
+                        new Update()
+                                .set("deleted", true)
+                                .set("deletedAt", Instant.now())
+                                .set("lastJobId", job.getJobId())
+                                .inc("sequence", 1),
+                        Product.class)
+                // Frees their names for other products, like a single delete
+                .then(mongoTemplate.remove(Query.query(Criteria.where("_id").in(changedProducts.stream().map(Product::getProductId).toList())),
+                        ProductName.class))
+                .thenMany(outboxEventRepository.saveAll(Flux.fromIterable(changedProducts)
+                        .map(product -> event(job, ProductEventType.PRODUCT_DELETED, product.getProductId(),
+                                product.getSequence() + 1, null))))
+                .then();
+    }
+
+    // Job events carry the job ID where request events carry the request ID
+    private OutboxEvent event(CatalogueJob job, ProductEventType type, String productId, long sequence, ProductResponseDto product) {
+        return ProductServiceImpl.newEvent(type, job.getTenantId(), productId, sequence, product, job.getJobId());
+    }
+
+    private Mono<Boolean> checkpoint(String jobId, List<String> productIds) {
+        // Matches only while the job is running here, so a cancel or a lost lease stops the job
+        Instant now = Instant.now();
+        return mongoTemplate.findAndModify(
+                        ownedByThisReplica(jobId),
+                        new Update()
+                                .inc("processed", productIds.size())
+                                .set("checkpoint", productIds.get(productIds.size() - 1))
+                                .set("leaseExpiresAt", now.plus(leaseDuration))
+                                .set("updatedAt", now),
+                        FindAndModifyOptions.options().returnNew(true),
+                        CatalogueJob.class)
+                .map(updated -> true)
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<CatalogueJob> finish(String jobId, JobStatus status, String error) {
+        return mongoTemplate.findAndModify(
+                        ownedByThisReplica(jobId),
+                        new Update()
+                                .set("status", status)
+                                .set("error", error)
+                                .unset("owner")
+                                .unset("leaseExpiresAt")
+                                .set("updatedAt", Instant.now()),
+                        FindAndModifyOptions.options().returnNew(true),
+                        CatalogueJob.class)
+                .switchIfEmpty(jobRepository.findById(jobId));
+    }
+}
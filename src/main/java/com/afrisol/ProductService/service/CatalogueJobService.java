@@ -0,0 +1,11 @@
+package com.afrisol.ProductService.service;
+
+import com.afrisol.ProductService.dto.JobRequestDto;
+import com.afrisol.ProductService.dto.JobResponseDto;
+import reactor.core.publisher.Mono;
+
+public interface CatalogueJobService {
+    Mono<JobResponseDto> submitJob(JobRequestDto jobRequestDto, String tenantId, String requestID);
+    Mono<JobResponseDto> getJob(String jobId, String tenantId, String requestID);
+    Mono<JobResponseDto> cancelJob(String jobId, String tenantId, String requestID);
+}
@@ -0,0 +1,109 @@
+package com.afrisol.ProductService.service;
+
+import com.afrisol.ProductService.dto.JobRequestDto;
+import com.afrisol.ProductService.dto.JobResponseDto;
+import com.afrisol.ProductService.exception.CustomException;
+import com.afrisol.ProductService.model.CatalogueJob;
+import com.afrisol.ProductService.model.JobStatus;
+import com.afrisol.ProductService.model.JobType;
+import com.afrisol.ProductService.repository.CatalogueJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Slf4j
+@Service
+public class CatalogueJobServiceImpl implements CatalogueJobService {
+
+    private final CatalogueJobRepository jobRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final CatalogueJobExecutor jobExecutor;
+
+    public CatalogueJobServiceImpl(CatalogueJobRepository jobRepository,
+                                   ReactiveMongoTemplate mongoTemplate,
+                                   CatalogueJobExecutor jobExecutor) {
+        this.jobRepository = jobRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.jobExecutor = jobExecutor;
+    }
+
+    @Override
+    public Mono<JobResponseDto> submitJob(JobRequestDto jobRequestDto, String tenantId, String requestID) {
+        if (jobRequestDto == null) {
+            return Mono.error(new IllegalArgumentException("JobRequestDto cannot be null"));
+        }
+        if (jobRequestDto.getType() == JobType.REPRICE && jobRequestDto.getPercentage() == null) {
+            return Mono.error(new IllegalArgumentException("Percentage is required for REPRICE jobs"));
+        }
+        log.info("Submitting {} job for product type: {} of tenant: {} Request ID: {}", jobRequestDto.getType(), jobRequestDto.getProductType(), tenantId, requestID);
+        Instant now = Instant.now();
+        return jobRepository.save(CatalogueJob.builder()
+                        .tenantId(tenantId)
+                        .type(jobRequestDto.getType())
+                        .status(JobStatus.PENDING)
+                        .productType(jobRequestDto.getProductType())
+                        .percentage(jobRequestDto.getPercentage())
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .doOnNext(savedJob -> {
+                    log.info("Successfully submitted job with ID: {} Request ID: {}", savedJob.getJobId(), requestID);
+                    jobExecutor.start(savedJob);
+                })
+                .map(this::mapToJobResponseDto);
+    }
+
+    @Override
+    public Mono<JobResponseDto> getJob(String jobId, String tenantId, String requestID) {
+        log.info("Retrieving job with ID: {} for tenant: {} Request ID: {}", jobId, tenantId, requestID);
+        return jobRepository.findByJobIdAndTenantId(jobId, tenantId)
+                .switchIfEmpty(Mono.error(() -> new CustomException(HttpStatus.NOT_FOUND, "Job not found with ID: " + jobId)))
+                .map(this::mapToJobResponseDto);
+    }
+
+    @Override
+    public Mono<JobResponseDto> cancelJob(String jobId, String tenantId, String requestID) {
+        log.info("Cancelling job with ID: {} for tenant: {} Request ID: {}", jobId, tenantId, requestID);
+        return mongoTemplate.findAndModify(
+                        Query.query(Criteria.where("_id").is(jobId)
+                                .and("tenantId").is(tenantId)
+                                .and("status").in(JobStatus.PENDING, JobStatus.RUNNING)),
+                        new Update()
+                                .set("status", JobStatus.CANCELLED)
+                                .set("updatedAt", Instant.now()),
+                        FindAndModifyOptions.options().returnNew(true),
+                        CatalogueJob.class)
+                .doOnNext(cancelledJob -> {
+                    jobExecutor.cancel(jobId);
+                    log.info("Successfully cancelled job with ID: {} Request ID: {}", jobId, requestID);
+                })
+                .switchIfEmpty(jobRepository.findByJobIdAndTenantId(jobId, tenantId)
+                        .switchIfEmpty(Mono.error(() -> new CustomException(HttpStatus.NOT_FOUND, "Job not found with ID: " + jobId)))
+                        .<CatalogueJob>flatMap(finishedJob -> Mono.error(new CustomException(HttpStatus.CONFLICT,
+                                "Job with ID: " + jobId + " has already finished with status: " + finishedJob.getStatus()))))
+                .map(this::mapToJobResponseDto);
+    }
+
+    private JobResponseDto mapToJobResponseDto(CatalogueJob job) {
+        return JobResponseDto.builder()
+                .id(job.getJobId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .productType(job.getProductType())
+                .percentage(job.getPercentage())
+                .total(job.getTotal())
+                .processed(job.getProcessed())
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+}
@@ -1,14 +1,21 @@
 package com.afrisol.ProductService.service;
 
+import com.afrisol.ProductService.dto.PopularProductDto;
+import com.afrisol.ProductService.dto.PriceHistoryPointDto;
 import com.afrisol.ProductService.dto.ProductRequestDto;
 import com.afrisol.ProductService.dto.ProductResponseDto;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
 public interface ProductService {
-    Mono<ProductResponseDto> addProduct(ProductRequestDto productRequestDto, String requestID);
-    Mono<ProductResponseDto> updateProduct(ProductRequestDto productRequestDto, String productId, String requestID);
-    Mono<Void> deleteProduct(String productId, String requestID);
-    Flux<ProductResponseDto> getAllProducts(String requestID);
-    Mono<ProductResponseDto> getProduct(String productId, String requestID);
+    Mono<ProductResponseDto> addProduct(ProductRequestDto productRequestDto, String tenantId, String requestID);
+    Mono<ProductResponseDto> updateProduct(ProductRequestDto productRequestDto, String productId, String tenantId, String requestID);
+    Mono<Void> deleteProduct(String productId, String tenantId, String requestID);
+    Mono<ProductResponseDto> restoreProduct(String productId, String tenantId, String requestID);
+    Flux<ProductResponseDto> getAllProducts(String tenantId, String requestID);
+    Mono<ProductResponseDto> getProduct(String productId, String tenantId, String requestID);
+    Flux<PopularProductDto> getPopularProducts(int limit, String tenantId, String requestID);
+    Flux<PriceHistoryPointDto> getPriceHistory(String productId, Instant from, Instant to, String tenantId, String requestID);
 }
@@ -1,118 +1,285 @@
 package com.afrisol.ProductService.service;
 
+import com.afrisol.ProductService.cache.ProductCache;
+import com.afrisol.ProductService.config.WarmUpMarker;
+import com.afrisol.ProductService.dto.PopularProductDto;
+import com.afrisol.ProductService.dto.PriceHistoryPointDto;
 import com.afrisol.ProductService.dto.ProductRequestDto;
 import com.afrisol.ProductService.dto.ProductResponseDto;
 import com.afrisol.ProductService.exception.CustomException;
 import com.afrisol.ProductService.exception.ProductAlreadyExistsException;
 import com.afrisol.ProductService.exception.ProductNotFoundException;
+import com.afrisol.ProductService.history.PriceHistoryStore;
+import com.afrisol.ProductService.model.OutboxEvent;
+import com.afrisol.ProductService.model.PriceHistoryBucket;
 import com.afrisol.ProductService.model.Product;
+import com.afrisol.ProductService.model.ProductEventType;
+import com.afrisol.ProductService.model.ProductName;
+import com.afrisol.ProductService.repository.OutboxEventRepository;
+import com.afrisol.ProductService.repository.ProductNameRepository;
 import com.afrisol.ProductService.repository.ProductRepository;
+import com.afrisol.ProductService.tracking.ProductAccessTracker;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
 @Slf4j
 @Service
 public class ProductServiceImpl implements ProductService {
 
+    private static final Duration DEFAULT_HISTORY_WINDOW = Duration.ofDays(30);
+
     private final ProductRepository productRepository;
+    private final ProductNameRepository productNameRepository;
+    private final ProductCache productCache;
+    private final ProductAccessTracker productAccessTracker;
+    private final PriceHistoryStore priceHistoryStore;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionalOperator transactionalOperator;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, ProductNameRepository productNameRepository,
+                              ProductCache productCache, ProductAccessTracker productAccessTracker,
+                              PriceHistoryStore priceHistoryStore, OutboxEventRepository outboxEventRepository,
+                              TransactionalOperator transactionalOperator) {
         this.productRepository = productRepository;
+        this.productNameRepository = productNameRepository;
+        this.productCache = productCache;
+        this.productAccessTracker = productAccessTracker;
+        this.priceHistoryStore = priceHistoryStore;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionalOperator = transactionalOperator;
     }
 
     @Override
-    public Mono<ProductResponseDto> addProduct(ProductRequestDto productRequestDto, String requestID) {
+    public Mono<ProductResponseDto> addProduct(ProductRequestDto productRequestDto, String tenantId, String requestID) {
         if (productRequestDto == null) {
             return Mono.error(new IllegalArgumentException("ProductRequestDto cannot be null"));
         }
-        return productRepository.existsByName(productRequestDto.getName())
+        return productNameRepository.existsByTenantIdAndName(tenantId, productRequestDto.getName())
                 .flatMap(exists -> {
                     if (exists) {
-                        return Mono.error(new ProductAlreadyExistsException("Product already exists"));
+                        return Mono.error(ProductAlreadyExistsException.INSTANCE);
                     }
                     return productRepository.save(Product.builder()
+                                    .tenantId(tenantId)
                                     .name(productRequestDto.getName())
                                     .description(productRequestDto.getDescription())
                                     .type(productRequestDto.getType())
                                     .price(productRequestDto.getPrice())
                                     .quantity(productRequestDto.getQuantity())
+                                    .sequence(1)
                                     .build())
-                            .doOnNext(savedProduct ->
-                                    log.info("Successfully added product with ID: {}", savedProduct.getProductId())
-                            ).map(this::mapToProductResponseDto);
-                });
+                            .flatMap(this::reserveName)
+                            .flatMap(savedProduct -> recordEvent(ProductEventType.PRODUCT_ADDED, savedProduct, requestID))
+                            .flatMap(this::recordPrice);
+                })
+                .as(transactionalOperator::transactional)
+                // A write conflict with a concurrent transaction aborts this one, it is run again
+                .retryWhen(TransactionRetry.transientErrors())
+                // A concurrent request took the same name after the check above, its reservation rejected this one
+                .onErrorMap(DuplicateKeyException.class, e -> ProductAlreadyExistsException.INSTANCE)
+                .doOnNext(savedProduct ->
+                        log.info("Successfully added product with ID: {} for tenant: {}", savedProduct.getProductId(), tenantId)
+                ).map(ProductServiceImpl::mapToProductResponseDto);
     }
 
     @Override
-    public Mono<ProductResponseDto> updateProduct(@Valid ProductRequestDto productRequestDto, String productId, String requestID) {
-        log.info("Updating product with ID: {} Request ID: {}", productId, requestID);
+    public Mono<ProductResponseDto> updateProduct(@Valid ProductRequestDto productRequestDto, String productId, String tenantId, String requestID) {
+        log.info("Updating product with ID: {} for tenant: {} Request ID: {}", productId, tenantId, requestID);
 
-        return productRepository.findById(productId)
-                .switchIfEmpty(Mono.error(new ProductNotFoundException("Product not found with ID: " + productId)))
+        // Read inside the transaction: a write to the product committed since then aborts it, so the
+        // sequence read here is the one this update increments
+        return productRepository.findByTenantIdAndProductIdAndDeletedFalse(tenantId, productId)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found with ID: " + productId)))
                 .flatMap(existingProduct -> {
+                    boolean stockOrPriceChanged = !Objects.equals(existingProduct.getPrice(), productRequestDto.getPrice())
+                            || existingProduct.getQuantity() != productRequestDto.getQuantity();
+                    boolean renamed = !Objects.equals(existingProduct.getName(), productRequestDto.getName());
                     // Update product fields
                     existingProduct.setName(productRequestDto.getName());
                     existingProduct.setDescription(productRequestDto.getDescription());
                     existingProduct.setType(productRequestDto.getType());
                     existingProduct.setPrice(productRequestDto.getPrice());
                     existingProduct.setQuantity(productRequestDto.getQuantity());
-                    return productRepository.save(existingProduct);
+                    existingProduct.setSequence(existingProduct.getSequence() + 1);
+                    return productRepository.updateLiveById(tenantId, productId, existingProduct.getName(), existingProduct.getDescription(),
+                                    existingProduct.getType(), existingProduct.getPrice(), existingProduct.getQuantity())
+                            .flatMap(updated -> updated == 0
+                                    ? Mono.<Product>error(new ProductNotFoundException("Product not found with ID: " + productId))
+                                    : recordEvent(ProductEventType.PRODUCT_UPDATED, existingProduct, requestID))
+                            .flatMap(savedProduct -> renamed ? reserveName(savedProduct) : Mono.just(savedProduct))
+                            .flatMap(savedProduct -> stockOrPriceChanged ? recordPrice(savedProduct) : Mono.just(savedProduct));
                 })
+                .as(transactionalOperator::transactional)
+                .retryWhen(TransactionRetry.transientErrors())
+                // Another live product of the tenant already has the new name
+                .onErrorMap(DuplicateKeyException.class, e -> ProductAlreadyExistsException.INSTANCE)
+                // Evicted rather than put: puts of concurrent updates can land out of commit order, the next read refills it
+                .flatMap(updatedProduct -> productCache.evict(productId).thenReturn(updatedProduct))
                 .doOnNext(updatedProduct ->
                         log.info("Successfully updated product with ID: {} Request ID: {}", updatedProduct.getProductId(), requestID)
                 )
-                .map(this::mapToProductResponseDto);
+                .map(ProductServiceImpl::mapToProductResponseDto);
     }
 
     @Override
-    public Mono<Void> deleteProduct(String productId, String requestID) {
-        log.info("Deleting product with ID: {} Request ID {}", productId, requestID);
+    public Mono<Void> deleteProduct(String productId, String tenantId, String requestID) {
+        log.info("Deleting product with ID: {} for tenant: {} Request ID {}", productId, tenantId, requestID);
         if (productId == null || productId.isEmpty()) {
             return Mono.error(new IllegalArgumentException("Invalid product ID"));
         }
-        return productRepository.findById(productId)
-                .switchIfEmpty(Mono.error(new ProductNotFoundException("Product not found with ID: " + productId)))
-                .flatMap(productRepository::delete)
+        // Read inside the transaction for its sequence, the conditional write still decides whether the product was live
+        return productRepository.findByTenantIdAndProductIdAndDeletedFalse(tenantId, productId)
+                .flatMap(liveProduct -> productRepository.tombstoneById(tenantId, productId, Instant.now())
+                        .filter(deleted -> deleted > 0)
+                        // The name is free for another product once the delete commits
+                        .flatMap(deleted -> productNameRepository.deleteById(productId).thenReturn(deleted))
+                        .flatMap(deleted -> outboxEventRepository.save(newEvent(ProductEventType.PRODUCT_DELETED, tenantId, productId,
+                                liveProduct.getSequence() + 1, null, requestID))))
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found with ID: " + productId)))
+                .as(transactionalOperator::transactional)
+                .retryWhen(TransactionRetry.transientErrors())
+                .then(productCache.evict(productId))
                 .doOnSuccess(unused -> log.info("Successfully deleted product with ID: {} request ID {}", productId, requestID));
     }
 
     @Override
-    public Flux<ProductResponseDto> getAllProducts(String requestID) {
-        log.info("Retrieving all products with request ID: {}", requestID);
-        return productRepository.findAll().map(this::mapToProductResponseDto);
+    public Mono<ProductResponseDto> restoreProduct(String productId, String tenantId, String requestID) {
+        log.info("Restoring product with ID: {} for tenant: {} Request ID {}", productId, tenantId, requestID);
+        if (productId == null || productId.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Invalid product ID"));
+        }
+        return productRepository.findByTenantIdAndProductId(tenantId, productId)
+                .filter(Product::isDeleted)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Deleted product not found with ID: " + productId)))
+                .flatMap(tombstone -> productNameRepository.existsByTenantIdAndName(tenantId, tombstone.getName()))
+                .flatMap(nameTaken -> nameTaken
+                        ? Mono.<Long>error(ProductAlreadyExistsException.INSTANCE)
+                        : productRepository.restoreById(tenantId, productId))
+                // Nothing is restored when the tombstone was purged or restored since the lookup above
+                .flatMap(restored -> restored > 0
+                        ? productRepository.findByTenantIdAndProductIdAndDeletedFalse(tenantId, productId)
+                        : Mono.<Product>error(new ProductNotFoundException("Deleted product not found with ID: " + productId)))
+                .flatMap(this::reserveName)
+                .flatMap(restoredProduct -> recordEvent(ProductEventType.PRODUCT_RESTORED, restoredProduct, requestID))
+                .as(transactionalOperator::transactional)
+                .retryWhen(TransactionRetry.transientErrors())
+                .onErrorMap(DuplicateKeyException.class, e -> ProductAlreadyExistsException.INSTANCE)
+                .doOnNext(restoredProduct -> log.info("Successfully restored product with ID: {} request ID {}", productId, requestID))
+                .map(ProductServiceImpl::mapToProductResponseDto);
     }
 
     @Override
-    public Mono<ProductResponseDto> getProduct(String productId, String requestID) {
+    public Flux<ProductResponseDto> getAllProducts(String tenantId, String requestID) {
+        log.info("Retrieving all products for tenant: {} with request ID: {}", tenantId, requestID);
+        return productRepository.findAllByTenantIdAndDeletedFalse(tenantId).map(ProductServiceImpl::mapToProductResponseDto);
+    }
+
+    @Override
+    public Mono<ProductResponseDto> getProduct(String productId, String tenantId, String requestID) {
         if (productId == null || productId.isEmpty()) {
             return Mono.error(new CustomException(HttpStatus.BAD_REQUEST, "Product ID cannot be null or empty"));
         }
         log.info("Searching for product with ID: {}", productId);
-        return productRepository.findById(productId)
-                .switchIfEmpty(Mono.error(new ProductNotFoundException("Product not found")))
-                .map(this::mapToProductResponseDto)
-                .doOnNext(product -> log.info("Successfully retrieved product with ID: {} for requestID: {}", productId, requestID))
-                .onErrorResume(e -> {
-                    if (e instanceof ProductNotFoundException) {
-                        log.error("Product not found: {}", e.getMessage());
-                        return Mono.error(e); // Rethrow as is
-                    } else if (e instanceof CustomException) {
-                        log.error("Custom exception occurred: {}", e.getMessage());
-                        return Mono.error(e); // Rethrow as is
+        // The cache is keyed by product ID alone, a product of another tenant counts as a miss
+        return productCache.get(productId)
+                .filter(cached -> tenantId.equals(cached.getTenantId()))
+                .switchIfEmpty(Mono.defer(() -> {
+                    long readStartedAt = System.currentTimeMillis();
+                    return productRepository.findByTenantIdAndProductIdAndDeletedFalse(tenantId, productId)
+                            .flatMap(product -> productCache.fill(product, readStartedAt).thenReturn(product));
+                }))
+                .switchIfEmpty(Mono.error(ProductNotFoundException.INSTANCE))
+                .map(ProductServiceImpl::mapToProductResponseDto)
+                .doOnEach(signal -> {
+                    if (!signal.isOnNext()) {
+                        return;
                     }
+                    // Warm-up reads would otherwise make whatever it preloads look hot
+                    if (!WarmUpMarker.isWarmUp(signal.getContextView())) {
+                        productAccessTracker.record(tenantId, productId);
+                    }
+                    log.info("Successfully retrieved product with ID: {} for requestID: {}", productId, requestID);
+                })
+                .onErrorMap(e -> !(e instanceof ProductNotFoundException || e instanceof CustomException), e -> {
                     log.error("Unexpected error occurred: {}", e.getMessage(), e);
-                    return Mono.error(new RuntimeException("Unexpected error occurred", e));
+                    return new RuntimeException("Unexpected error occurred", e);
                 });
     }
 
-    private ProductResponseDto mapToProductResponseDto(Product product) {
+    @Override
+    public Flux<PopularProductDto> getPopularProducts(int limit, String tenantId, String requestID) {
+        log.info("Retrieving top {} popular products for tenant: {} with request ID: {}", limit, tenantId, requestID);
+        if (limit < 1) {
+            return Flux.error(new IllegalArgumentException("Limit must be at least 1"));
+        }
+        return Flux.fromIterable(productAccessTracker.topProducts(tenantId, limit));
+    }
+
+    @Override
+    public Flux<PriceHistoryPointDto> getPriceHistory(String productId, Instant from, Instant to, String tenantId, String requestID) {
+        log.info("Retrieving price history for product with ID: {} for tenant: {} from {} to {} Request ID: {}", productId, tenantId, from, to, requestID);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_HISTORY_WINDOW);
+        if (start.isAfter(end)) {
+            return Flux.error(new IllegalArgumentException("History start must not be after its end"));
+        }
+        // History is keyed by product ID alone, so ownership is checked on the product, deleted ones included
+        return productRepository.existsByTenantIdAndProductId(tenantId, productId)
+                .flatMapMany(owned -> owned
+                        ? priceHistoryStore.find(productId, start, end)
+                        : Flux.<PriceHistoryBucket.Point>error(new ProductNotFoundException("Product not found with ID: " + productId)))
+                .map(point -> PriceHistoryPointDto.builder()
+                        .timestamp(point.getAt())
+                        .price(point.getPrice())
+                        .quantity(point.getQuantity())
+                        .build());
+    }
+
+    // Replaces the product's reservation, a live product of the tenant holding the name fails it with a duplicate key
+    private Mono<Product> reserveName(Product product) {
+        return productNameRepository.save(new ProductName(product.getProductId(), product.getTenantId(), product.getName()))
+                .thenReturn(product);
+    }
+
+    // Joins the surrounding transaction, so the event is stored if and only if the change is
+    private Mono<Product> recordEvent(ProductEventType type, Product product, String requestID) {
+        return outboxEventRepository.save(newEvent(type, product.getTenantId(), product.getProductId(), product.getSequence(),
+                        mapToProductResponseDto(product), requestID))
+                .thenReturn(product);
+    }
+
+    // Joins the surrounding transaction like the event, the point is stamped with the time of the change
+    private Mono<Product> recordPrice(Product product) {
+        return priceHistoryStore.append(product, Instant.now()).thenReturn(product);
+    }
+
+    // Also used by the catalogue job executor, whose bulk writes record the same events
+    static OutboxEvent newEvent(ProductEventType type, String tenantId, String productId, long sequence,
+                                ProductResponseDto product, String requestID) {
+        return OutboxEvent.builder()
+                .tenantId(tenantId)
+                .productId(productId)
+                .sequence(sequence)
+                .type(type)
+                .product(product)
+                .requestId(requestID)
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    static ProductResponseDto mapToProductResponseDto(Product product) {
         return ProductResponseDto.builder()
                 .id(product.getProductId())
                 .name(product.getName())
@@ -0,0 +1,43 @@
+package com.afrisol.ProductService.service;
+
+import com.mongodb.MongoException;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+
+/**
+ * Retries a transaction that Mongo aborted with the {@code TransientTransactionError} label, such
+ * as the loser of a write conflict between two transactions on the same product. The whole
+ * transaction is subscribed again, so it must re-run every read and write it depends on; side
+ * effects that must only happen once, like cache evictions, go after it.
+ */
+final class TransactionRetry {
+
+    static final String TRANSIENT_TRANSACTION_ERROR = "TransientTransactionError";
+
+    private static final int MAX_RETRIES = 5;
+    private static final Duration FIRST_BACKOFF = Duration.ofMillis(10);
+    private static final Duration MAX_BACKOFF = Duration.ofMillis(500);
+
+    private TransactionRetry() {
+    }
+
+    static RetryBackoffSpec transientErrors() {
+        return Retry.backoff(MAX_RETRIES, FIRST_BACKOFF)
+                .maxBackoff(MAX_BACKOFF)
+                .filter(TransactionRetry::isTransient)
+                // The last conflict is reported as itself rather than wrapped in a retry exhaustion
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    // Spring wraps driver exceptions, the label sits on the driver's exception further down the causes
+    static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && mongoException.hasErrorLabel(TRANSIENT_TRANSACTION_ERROR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,64 @@
+package com.afrisol.ProductService.tenant;
+
+import com.afrisol.ProductService.exception.CustomException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the tenant of a request from the {@value #TENANT_HEADER} header. Requests without the
+ * header belong to the default tenant, so single-tenant clients keep working unchanged. Tenant IDs
+ * are restricted to a short safe alphabet since they end up in queries, cache keys and metric tags,
+ * and only configured tenants are accepted, which bounds the per-tenant state and meter tags.
+ */
+@Component
+public class TenantIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    private static final Pattern VALID_TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final String defaultTenantId;
+    private final Set<String> tenantIds;
+
+    public TenantIdArgumentResolver(@Value("${product.tenant.default-id:default}") String defaultTenantId,
+                                    @Value("${product.tenant.ids:}") Collection<String> tenantIds) {
+        this.defaultTenantId = defaultTenantId;
+        Set<String> known = new HashSet<>(tenantIds);
+        known.add(defaultTenantId);
+        this.tenantIds = Set.copyOf(known);
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(TenantId.class) && parameter.getParameterType() == String.class;
+    }
+
+    @Override
+    public Mono<Object> resolveArgument(MethodParameter parameter, BindingContext bindingContext, ServerWebExchange exchange) {
+        return Mono.fromSupplier(() -> resolve(exchange.getRequest().getHeaders().getFirst(TENANT_HEADER)));
+    }
+
+    public String resolve(String headerValue) {
+        if (headerValue == null || headerValue.isBlank()) {
+            return defaultTenantId;
+        }
+        if (!VALID_TENANT_ID.matcher(headerValue).matches()) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Tenant ID must be 1 to 64 letters, digits, '-' or '_'");
+        }
+        if (!tenantIds.contains(headerValue)) {
+            throw new CustomException(HttpStatus.FORBIDDEN, "Unknown tenant: " + headerValue);
+        }
+        return headerValue;
+    }
+}
@@ -0,0 +1,20 @@
+package com.afrisol.ProductService.tenant;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+@Configuration
+public class TenantQuotaConfig {
+
+    @Bean
+    public TenantQuotaFilter tenantQuotaFilter(MeterRegistry meterRegistry,
+                                               TenantIdArgumentResolver tenantIdArgumentResolver,
+                                               @Value("${product.tenant.quota.requests-per-second:0}") int requestsPerSecond,
+                                               @Value("#{${product.tenant.quota.overrides:{:}}}") Map<String, Integer> overrides) {
+        return new TenantQuotaFilter(tenantIdArgumentResolver, meterRegistry, requestsPerSecond, overrides);
+    }
+}
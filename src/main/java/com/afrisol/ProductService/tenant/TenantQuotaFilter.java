@@ -0,0 +1,117 @@
+package com.afrisol.ProductService.tenant;
+
+import com.afrisol.ProductService.config.WarmUpMarker;
+import com.afrisol.ProductService.exception.CustomException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies a request rate quota per tenant on the API and records per-tenant request counts and
+ * latencies. Each tenant has a token bucket refilled at its rate, holding at most one second of
+ * requests. Requests beyond it get {@code 429} without reaching a controller. A rate of zero or
+ * less means no quota. Unknown tenants are rejected by the resolver before a quota is created, so
+ * there is one quota and one set of meters per configured tenant at most. Warm-up requests are
+ * neither throttled nor counted, and are marked in the Reactor context so access tracking skips
+ * them too.
+ */
+public class TenantQuotaFilter implements WebFilter {
+
+    private static final String API_PATH = "/api/";
+
+    private final TenantIdArgumentResolver tenantIdArgumentResolver;
+    private final MeterRegistry meterRegistry;
+    private final int defaultRequestsPerSecond;
+    private final Map<String, Integer> requestsPerSecondByTenant;
+    private final Map<String, TenantQuota> quotas = new ConcurrentHashMap<>();
+
+    public TenantQuotaFilter(TenantIdArgumentResolver tenantIdArgumentResolver,
+                             MeterRegistry meterRegistry,
+                             int defaultRequestsPerSecond,
+                             Map<String, Integer> requestsPerSecondByTenant) {
+        this.tenantIdArgumentResolver = tenantIdArgumentResolver;
+        this.meterRegistry = meterRegistry;
+        this.defaultRequestsPerSecond = defaultRequestsPerSecond;
+        this.requestsPerSecondByTenant = Map.copyOf(requestsPerSecondByTenant);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith(API_PATH)) {
+            return chain.filter(exchange);
+        }
+        if (WarmUpMarker.isWarmUp(exchange.getRequest())) {
+            return chain.filter(exchange).contextWrite(WarmUpMarker::markWarmUp);
+        }
+        String tenantId;
+        try {
+            tenantId = tenantIdArgumentResolver.resolve(exchange.getRequest().getHeaders().getFirst(TenantIdArgumentResolver.TENANT_HEADER));
+        } catch (CustomException e) {
+            // The controller rejects the request with the usual error body
+            return chain.filter(exchange);
+        }
+        TenantQuota quota = quotas.computeIfAbsent(tenantId, this::newQuota);
+        if (!quota.tryAcquire()) {
+            quota.throttled.increment();
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return exchange.getResponse().setComplete();
+        }
+        quota.accepted.increment();
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> quota.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private TenantQuota newQuota(String tenantId) {
+        int requestsPerSecond = requestsPerSecondByTenant.getOrDefault(tenantId, defaultRequestsPerSecond);
+        return new TenantQuota(requestsPerSecond,
+                Counter.builder("product.tenant.requests").tag("tenant", tenantId).tag("outcome", "accepted").register(meterRegistry),
+                Counter.builder("product.tenant.requests").tag("tenant", tenantId).tag("outcome", "throttled").register(meterRegistry),
+                Timer.builder("product.tenant.request.latency").tag("tenant", tenantId).register(meterRegistry));
+    }
+
+    private static final class TenantQuota {
+        private final double tokensPerNano;
+        private final double capacity;
+        private final Counter accepted;
+        private final Counter throttled;
+        private final Timer latency;
+        private double tokens;
+        private long refilledAt;
+
+        private TenantQuota(int requestsPerSecond, Counter accepted, Counter throttled, Timer latency) {
+            this.tokensPerNano = requestsPerSecond / 1e9;
+            this.capacity = requestsPerSecond;
+            this.accepted = accepted;
+            this.throttled = throttled;
+            this.latency = latency;
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        private synchronized boolean tryAcquire() {
+            if (capacity <= 0) {
+                return true;
+            }
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
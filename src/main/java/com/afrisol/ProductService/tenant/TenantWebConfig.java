@@ -0,0 +1,20 @@
+package com.afrisol.ProductService.tenant;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+@Configuration
+public class TenantWebConfig implements WebFluxConfigurer {
+
+    private final TenantIdArgumentResolver tenantIdArgumentResolver;
+
+    public TenantWebConfig(TenantIdArgumentResolver tenantIdArgumentResolver) {
+        this.tenantIdArgumentResolver = tenantIdArgumentResolver;
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(tenantIdArgumentResolver);
+    }
+}
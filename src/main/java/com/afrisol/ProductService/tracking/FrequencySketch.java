@@ -0,0 +1,97 @@
+package com.afrisol.ProductService.tracking;
+
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Count-min sketch with a bounded set of heavy-hitter candidates. Recording is wait-free: one
+ * atomic increment per row and, only for keys not yet tracked, a set insertion. Memory is fixed
+ * at {@code depth * width} counters plus at most twice {@code capacity} candidate keys.
+ * {@link #decay()} halves every counter so old traffic fades and counts track recent rates.
+ * Keys are hashed to 64 bits and each row mixes that hash with its own seed, so keys whose
+ * {@code hashCode} collides still land on different counters.
+ */
+public class FrequencySketch {
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int capacity;
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+    private volatile long admissionThreshold;
+
+    public FrequencySketch(int width, int capacity) {
+        this.width = Integer.highestOneBit(Math.max(width, 16));
+        this.capacity = capacity;
+        this.counters = new AtomicLongArray(SEEDS.length * this.width);
+    }
+
+    public void increment(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        if (!candidates.contains(key)
+                && (estimate >= admissionThreshold || candidates.size() < capacity)
+                && candidates.size() < 2 * capacity) {
+            candidates.add(key);
+        }
+    }
+
+    public long estimate(String key) {
+        long hash = hash(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    public List<Map.Entry<String, Long>> top(int limit) {
+        return candidates.stream()
+                .map(key -> (Map.Entry<String, Long>) new AbstractMap.SimpleImmutableEntry<>(key, estimate(key)))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .toList();
+    }
+
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+        // Keep the strongest candidates; the weakest of them sets the bar for newcomers
+        List<Map.Entry<String, Long>> kept = top(capacity);
+        candidates.retainAll(kept.stream().map(Map.Entry::getKey).collect(Collectors.toSet()));
+        admissionThreshold = kept.size() < capacity ? 0 : kept.get(kept.size() - 1).getValue();
+    }
+
+    private int index(long hash, int row) {
+        return row * width + ((int) (mix(hash ^ SEEDS[row]) >>> 32) & (width - 1));
+    }
+
+    // FNV-1a over the characters, String.hashCode only has 32 bits and collides for short keys
+    private static long hash(String key) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer, spreads every input bit over the whole result
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,119 @@
+package com.afrisol.ProductService.tracking;
+
+import com.afrisol.ProductService.dto.PopularProductDto;
+import com.afrisol.ProductService.model.AccessSnapshot;
+import com.afrisol.ProductService.repository.AccessSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks how often each product is read. Counts are halved every decay interval, so a count adds
+ * up the reads of a window that every decay halves and time extends: right after a decay it
+ * covers one interval, right before the next about two. Request rates divide counts by that
+ * window as it stands when they are asked for, so they hold for a product read at a steady rate
+ * at any point between decays. Each decay also persists the current top products as the hot-products snapshot
+ * that warm-up preloads. Each replica keeps its own snapshot, so replicas never overwrite each
+ * other's counts. Each tenant has a sketch of its own, so a busy tenant cannot crowd a small one
+ * out of its hot list; tenants are limited to the configured ones, which bounds the memory.
+ */
+@Slf4j
+@Component
+public class ProductAccessTracker {
+
+    private static final char KEY_SEPARATOR = ':';
+    // A read right after a tenant's first one is not a rate of thousands per second
+    private static final double MIN_WINDOW_SECONDS = 1.0;
+
+    // Seconds of reads a tenant's counts held at the last decay, and when that was in nanoseconds
+    private record Window(double decayedSeconds, long decayedAt) {
+        double secondsAt(long now) {
+            return decayedSeconds + (now - decayedAt) / 1e9;
+        }
+    }
+
+    private static final class TenantCounts {
+        private final FrequencySketch sketch;
+        // Replaced as a whole, so a rate never pairs the seconds of one decay with the time of another
+        private volatile Window window;
+
+        private TenantCounts(FrequencySketch sketch, long now) {
+            this.sketch = sketch;
+            this.window = new Window(0, now);
+        }
+    }
+
+    private final String snapshotId = AccessSnapshot.HOT_PRODUCTS + KEY_SEPARATOR + UUID.randomUUID();
+    private final Map<String, TenantCounts> counts = new ConcurrentHashMap<>();
+    private final int sketchWidth;
+    private final AccessSnapshotRepository accessSnapshotRepository;
+    private final int capacity;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public ProductAccessTracker(@Value("${product.access.sketch-width:16384}") int sketchWidth,
+                                @Value("${product.access.capacity:1000}") int capacity,
+                                AccessSnapshotRepository accessSnapshotRepository) {
+        this(sketchWidth, capacity, accessSnapshotRepository, System::nanoTime);
+    }
+
+    ProductAccessTracker(int sketchWidth, int capacity, AccessSnapshotRepository accessSnapshotRepository, LongSupplier nanoClock) {
+        this.sketchWidth = sketchWidth;
+        this.accessSnapshotRepository = accessSnapshotRepository;
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+    }
+
+    public void record(String tenantId, String productId) {
+        counts.computeIfAbsent(tenantId, tenant -> new TenantCounts(new FrequencySketch(sketchWidth, capacity), nanoClock.getAsLong()))
+                .sketch.increment(productId);
+    }
+
+    public List<PopularProductDto> topProducts(String tenantId, int limit) {
+        TenantCounts tenantCounts = counts.get(tenantId);
+        if (tenantCounts == null) {
+            return List.of();
+        }
+        double windowSeconds = Math.max(tenantCounts.window.secondsAt(nanoClock.getAsLong()), MIN_WINDOW_SECONDS);
+        return tenantCounts.sketch.top(limit).stream()
+                .map(entry -> PopularProductDto.builder()
+                        .productId(entry.getKey())
+                        .estimatedCount(entry.getValue())
+                        .requestsPerSecond(entry.getValue() / windowSeconds)
+                        .build())
+                .toList();
+    }
+
+    @Scheduled(fixedRateString = "${product.access.decay-interval:PT1M}", initialDelayString = "${product.access.decay-interval:PT1M}")
+    public void decayAndSnapshot() {
+        List<AccessSnapshot.Entry> entries = counts.entrySet().stream()
+                .flatMap(tenant -> tenant.getValue().sketch.top(capacity).stream()
+                        .map(entry -> new AccessSnapshot.Entry(tenant.getKey(), entry.getKey(), entry.getValue())))
+                .toList();
+        long now = nanoClock.getAsLong();
+        counts.values().forEach(tenantCounts -> {
+            tenantCounts.sketch.decay();
+            // Halving the counts halves the reads they stand for, and so the seconds those reads took
+            tenantCounts.window = new Window(tenantCounts.window.secondsAt(now) / 2, now);
+        });
+        if (entries.isEmpty()) {
+            return;
+        }
+        accessSnapshotRepository.save(AccessSnapshot.builder()
+                        .snapshotId(snapshotId)
+                        .entries(entries)
+                        .takenAt(Instant.now())
+                        .build())
+                .subscribe(snapshot -> log.debug("Saved hot-products snapshot with {} entries", entries.size()),
+                        e -> log.warn("Could not save hot-products snapshot: {}", e.getMessage()));
+    }
+}
@@ -0,0 +1,200 @@
+package com.afrisol.ProductService.validation;
+
+import com.afrisol.ProductService.dto.ProductRequestDto;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.groups.Default;
+import jakarta.validation.metadata.BeanDescriptor;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import jakarta.validation.metadata.PropertyDescriptor;
+
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Checks {@link ProductRequestDto} in a single pass over plain getters. The rules and their
+ * messages are read once from the Bean Validation metadata of the DTO, so the annotations stay
+ * the single source of truth. {@link #compile} returns {@code null} when the DTO carries anything
+ * this class cannot reproduce exactly, such as a custom constraint, a group or an interpolated
+ * message, and the caller then keeps using Bean Validation.
+ */
+final class CompiledProductRequestValidator {
+
+    private static final Map<String, Function<ProductRequestDto, Object>> PROPERTIES = Map.of(
+            "name", ProductRequestDto::getName,
+            "description", ProductRequestDto::getDescription,
+            "type", ProductRequestDto::getType,
+            "price", ProductRequestDto::getPrice,
+            "quantity", ProductRequestDto::getQuantity);
+
+    // When a field breaks several constraints only one message is reported, the first in this order
+    private static final List<Class<? extends Annotation>> SUPPORTED = List.of(
+            NotNull.class, NotBlank.class, Size.class, Pattern.class, DecimalMin.class, Digits.class, Min.class);
+
+    private static final String LETTERS_AND_SPACES = "^[A-Za-z\\s]+$";
+
+    private final List<FieldRules> fields;
+
+    private CompiledProductRequestValidator(List<FieldRules> fields) {
+        this.fields = fields;
+    }
+
+    static CompiledProductRequestValidator compile(BeanDescriptor descriptor) {
+        if (descriptor.getElementClass() != ProductRequestDto.class || !descriptor.getConstraintDescriptors().isEmpty()) {
+            return null;
+        }
+        List<FieldRules> fields = new ArrayList<>();
+        for (PropertyDescriptor property : descriptor.getConstrainedProperties()) {
+            Function<ProductRequestDto, Object> getter = PROPERTIES.get(property.getPropertyName());
+            if (getter == null || property.isCascaded() || !property.getConstrainedContainerElementTypes().isEmpty()) {
+                return null;
+            }
+            List<ConstraintDescriptor<?>> constraints = new ArrayList<>(property.getConstraintDescriptors());
+            if (!constraints.stream().allMatch(CompiledProductRequestValidator::isSupported)) {
+                return null;
+            }
+            constraints.sort(Comparator.comparingInt(constraint -> SUPPORTED.indexOf(constraint.getAnnotation().annotationType())));
+            List<Rule> rules = new ArrayList<>();
+            for (ConstraintDescriptor<?> constraint : constraints) {
+                Predicate<Object> check = checkFor(constraint, property.getElementClass());
+                if (check == null) {
+                    return null;
+                }
+                rules.add(new Rule(check, constraint.getMessageTemplate()));
+            }
+            fields.add(new FieldRules(property.getPropertyName(), getter, rules));
+        }
+        return new CompiledProductRequestValidator(List.copyOf(fields));
+    }
+
+    /**
+     * Bean Validation turns NaN and infinite prices into edge cases of its own, those requests
+     * take the fallback path.
+     */
+    boolean supports(ProductRequestDto productRequestDto) {
+        return productRequestDto.getPrice() == null || Double.isFinite(productRequestDto.getPrice());
+    }
+
+    Map<String, String> validate(ProductRequestDto productRequestDto) {
+        Map<String, String> errors = null;
+        for (FieldRules field : fields) {
+            Object value = field.getter().apply(productRequestDto);
+            for (Rule rule : field.rules()) {
+                if (!rule.check().test(value)) {
+                    if (errors == null) {
+                        errors = new HashMap<>();
+                    }
+                    errors.put(field.property(), rule.message());
+                    break;
+                }
+            }
+        }
+        return errors == null ? Map.of() : errors;
+    }
+
+    private static boolean isSupported(ConstraintDescriptor<?> constraint) {
+        return SUPPORTED.contains(constraint.getAnnotation().annotationType())
+                && constraint.getGroups().equals(Set.of(Default.class))
+                && constraint.getComposingConstraints().isEmpty()
+                && !constraint.getMessageTemplate().contains("{")
+                && !constraint.getMessageTemplate().contains("\\");
+    }
+
+    private static Predicate<Object> checkFor(ConstraintDescriptor<?> constraint, Class<?> type) {
+        boolean text = type == String.class;
+        boolean decimal = type == Double.class || type == double.class;
+        boolean integral = type == Integer.class || type == int.class || type == Long.class || type == long.class;
+        Annotation annotation = constraint.getAnnotation();
+
+        if (annotation instanceof NotNull) {
+            return value -> value != null;
+        }
+        if (annotation instanceof NotBlank && text) {
+            return value -> value != null && !value.toString().trim().isEmpty();
+        }
+        if (annotation instanceof Size size && text) {
+            int min = size.min();
+            int max = size.max();
+            return value -> value == null || (((String) value).length() >= min && ((String) value).length() <= max);
+        }
+        if (annotation instanceof Pattern pattern && text) {
+            if (pattern.flags().length == 0 && LETTERS_AND_SPACES.equals(pattern.regexp())) {
+                return value -> value == null || isLettersAndSpaces((String) value);
+            }
+            int flags = 0;
+            for (Pattern.Flag flag : pattern.flags()) {
+                flags |= flag.getValue();
+            }
+            java.util.regex.Pattern compiled = java.util.regex.Pattern.compile(pattern.regexp(), flags);
+            return value -> value == null || compiled.matcher((String) value).matches();
+        }
+        if (annotation instanceof DecimalMin decimalMin && decimal) {
+            BigDecimal min = new BigDecimal(decimalMin.value());
+            boolean inclusive = decimalMin.inclusive();
+            // Comparing doubles is exact when the bound is a double with the same decimal form
+            if (BigDecimal.valueOf(min.doubleValue()).compareTo(min) == 0) {
+                double bound = min.doubleValue();
+                return value -> value == null || (inclusive ? (Double) value >= bound : (Double) value > bound);
+            }
+            return value -> {
+                if (value == null) {
+                    return true;
+                }
+                int comparison = BigDecimal.valueOf((Double) value).compareTo(min);
+                return inclusive ? comparison >= 0 : comparison > 0;
+            };
+        }
+        if (annotation instanceof Digits digits && decimal) {
+            int maxInteger = digits.integer();
+            int maxFraction = digits.fraction();
+            return value -> {
+                if (value == null) {
+                    return true;
+                }
+                BigDecimal number = new BigDecimal(value.toString()).stripTrailingZeros();
+                int fractionLength = Math.max(number.scale(), 0);
+                return number.precision() - number.scale() <= maxInteger && fractionLength <= maxFraction;
+            };
+        }
+        if (annotation instanceof Min minimum && integral) {
+            long min = minimum.value();
+            return value -> value == null || ((Number) value).longValue() >= min;
+        }
+        return null;
+    }
+
+    private static boolean isLettersAndSpaces(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean letter = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+            // \s without UNICODE_CHARACTER_CLASS is exactly these six characters
+            boolean space = c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+            if (!letter && !space) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Rule(Predicate<Object> check, String message) {
+    }
+
+    private record FieldRules(String property, Function<ProductRequestDto, Object> getter, List<Rule> rules) {
+    }
+}
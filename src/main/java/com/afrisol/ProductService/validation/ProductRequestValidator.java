@@ -0,0 +1,76 @@
+package com.afrisol.ProductService.validation;
+
+import com.afrisol.ProductService.config.ExecutionConfig;
+import com.afrisol.ProductService.dto.JobRequestDto;
+import com.afrisol.ProductService.dto.ProductRequestDto;
+import com.afrisol.ProductService.exception.RequestValidationException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Validates product request bodies on the work scheduler instead of in the argument resolver,
+ * which would run on the event loop. Decoding the body happens before and still runs there. Failures report the same field to message map as
+ * {@code @Valid} did. The constraints are checked by a validator compiled from the DTO's
+ * annotations at startup; Bean Validation is used when the DTO has constraints that validator
+ * does not support. Other request bodies, such as job requests, go through Bean Validation on the
+ * same scheduler.
+ */
+@Slf4j
+@Component
+public class ProductRequestValidator {
+
+    private final Validator validator;
+    private final Scheduler workScheduler;
+    private final CompiledProductRequestValidator compiledValidator;
+
+    public ProductRequestValidator(Validator validator,
+                                   @Qualifier(ExecutionConfig.WORK_SCHEDULER) Scheduler workScheduler) {
+        this.validator = validator;
+        this.workScheduler = workScheduler;
+        this.compiledValidator = CompiledProductRequestValidator.compile(validator.getConstraintsForClass(ProductRequestDto.class));
+        if (compiledValidator == null) {
+            log.warn("ProductRequestDto has constraints without a compiled check, using Bean Validation");
+        }
+    }
+
+    public Mono<ProductRequestDto> validate(ProductRequestDto productRequestDto) {
+        return Mono.fromCallable(() -> check(productRequestDto))
+                .subscribeOn(workScheduler);
+    }
+
+    public Mono<JobRequestDto> validate(JobRequestDto jobRequestDto) {
+        return Mono.fromCallable(() -> {
+                    Map<String, String> errors = beanValidation(jobRequestDto);
+                    if (!errors.isEmpty()) {
+                        throw new RequestValidationException(errors);
+                    }
+                    return jobRequestDto;
+                })
+                .subscribeOn(workScheduler);
+    }
+
+    ProductRequestDto check(ProductRequestDto productRequestDto) {
+        Map<String, String> errors = compiledValidator != null && compiledValidator.supports(productRequestDto)
+                ? compiledValidator.validate(productRequestDto)
+                : beanValidation(productRequestDto);
+        if (!errors.isEmpty()) {
+            throw new RequestValidationException(errors);
+        }
+        return productRequestDto;
+    }
+
+    <T> Map<String, String> beanValidation(T requestBody) {
+        Map<String, String> errors = new HashMap<>();
+        validator.validate(requestBody).forEach(violation ->
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage())
+        );
+        return errors;
+    }
+}
@@ -3,7 +3,8 @@ package com.afrisol.ProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {"product.warmup.enabled=false", "product.indexes.initialize=false",
+		"product.outbox.publisher=memory"})
 class ProductServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,100 @@
+package com.afrisol.ProductService.cache;
+
+import com.afrisol.ProductService.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+class MappedFileProductCacheTest {
+    @TempDir
+    Path tempDir;
+
+    private Path cacheFile;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        cacheFile = tempDir.resolve("product-cache.bin");
+        product = Product.builder()
+                .productId("testId")
+                .tenantId("acme")
+                .name("Test Product")
+                .description(null)
+                .type("Electronics")
+                .price(100.0)
+                .quantity(10)
+                .build();
+    }
+
+    @Test
+    void get_afterReopen_shouldReturnProductWrittenBeforeRestart() throws Exception {
+        try (MappedFileProductCache cache = new MappedFileProductCache(cacheFile, 64, 512, Duration.ofMinutes(5))) {
+            cache.fill(product, System.currentTimeMillis()).block();
+        }
+
+        try (MappedFileProductCache reopened = new MappedFileProductCache(cacheFile, 64, 512, Duration.ofMinutes(5))) {
+            StepVerifier.create(reopened.get("testId"))
+                    .expectNext(product)
+                    .verifyComplete();
+        }
+    }
+
+    @Test
+    void get_afterReopenWithDifferentLayout_shouldStartEmpty() throws Exception {
+        try (MappedFileProductCache cache = new MappedFileProductCache(cacheFile, 64, 512, Duration.ofMinutes(5))) {
+            cache.fill(product, System.currentTimeMillis()).block();
+        }
+
+        try (MappedFileProductCache reopened = new MappedFileProductCache(cacheFile, 128, 512, Duration.ofMinutes(5))) {
+            StepVerifier.create(reopened.get("testId")).verifyComplete();
+        }
+    }
+
+    @Test
+    void fill_whenProductLargerThanSlot_shouldNotCache() throws Exception {
+        product.setDescription("x".repeat(1000));
+        try (MappedFileProductCache cache = new MappedFileProductCache(cacheFile, 64, 512, Duration.ofMinutes(5))) {
+            cache.fill(product, System.currentTimeMillis()).block();
+
+            StepVerifier.create(cache.get("testId")).verifyComplete();
+        }
+    }
+
+    @Test
+    void evict_shouldRemoveEntry() throws Exception {
+        try (MappedFileProductCache cache = new MappedFileProductCache(cacheFile, 64, 512, Duration.ofMinutes(5))) {
+            cache.fill(product, System.currentTimeMillis()).block();
+            cache.evict("testId").block();
+
+            StepVerifier.create(cache.get("testId")).verifyComplete();
+        }
+    }
+
+    @Test
+    void fill_whenSlotEvictedAfterReadStarted_shouldNotCache() throws Exception {
+        try (MappedFileProductCache cache = new MappedFileProductCache(cacheFile, 64, 512, Duration.ofMinutes(5))) {
+            long readStartedAt = System.currentTimeMillis();
+            cache.evict("testId").block();
+
+            cache.fill(product, readStartedAt).block();
+
+            StepVerifier.create(cache.get("testId")).verifyComplete();
+        }
+    }
+
+    @Test
+    void lookup_shouldReturnExpiryOfFill() throws Exception {
+        try (MappedFileProductCache cache = new MappedFileProductCache(cacheFile, 64, 512, Duration.ofMinutes(5))) {
+            long expiresAt = System.currentTimeMillis() + 10_000;
+            cache.fill(product, System.currentTimeMillis(), expiresAt).block();
+
+            StepVerifier.create(cache.lookup("testId"))
+                    .expectNext(new CachedProduct(product, expiresAt))
+                    .verifyComplete();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.afrisol.ProductService.cache;
+
+import com.afrisol.ProductService.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TieredProductCacheTest {
+    private LocalProductCache l1;
+    private LocalProductCache l2;
+    private TieredProductCache cache;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        l1 = new LocalProductCache(10, Duration.ofMinutes(1));
+        l2 = new LocalProductCache(10, Duration.ofMinutes(1));
+        cache = new TieredProductCache(l1, l2);
+        product = Product.builder()
+                .productId("testId")
+                .name("Test Product")
+                .description("Test Description")
+                .type("Electronics")
+                .price(100.0)
+                .quantity(10)
+                .build();
+    }
+
+    @Test
+    void get_whenOnlyInL2_shouldPromoteToL1() {
+        l2.fill(product, System.currentTimeMillis()).block();
+
+        StepVerifier.create(cache.get("testId"))
+                .expectNext(product)
+                .verifyComplete();
+        StepVerifier.create(l1.get("testId"))
+                .expectNext(product)
+                .verifyComplete();
+    }
+
+    @Test
+    void get_whenOnlyInL2_shouldPromoteWithRemainingExpiry() {
+        long expiresAt = System.currentTimeMillis() + 10_000;
+        l2.fill(product, System.currentTimeMillis(), expiresAt).block();
+
+        cache.get("testId").block();
+
+        // Not a fresh minute of L1 TTL
+        StepVerifier.create(l1.lookup("testId"))
+                .expectNext(new CachedProduct(product, expiresAt))
+                .verifyComplete();
+    }
+
+    @Test
+    void fill_whenExpiryLaterThanTtl_shouldExpireWithTtl() {
+        long readStartedAt = System.currentTimeMillis();
+
+        l1.fill(product, readStartedAt, Long.MAX_VALUE).block();
+
+        CachedProduct cached = l1.lookup("testId").block();
+        assertTrue(cached.expiresAt() <= System.currentTimeMillis() + Duration.ofMinutes(1).toMillis());
+    }
+
+    @Test
+    void evict_shouldRemoveFromBothTiers() {
+        cache.fill(product, System.currentTimeMillis()).block();
+
+        cache.evict("testId").block();
+
+        StepVerifier.create(l1.get("testId")).verifyComplete();
+        StepVerifier.create(l2.get("testId")).verifyComplete();
+    }
+
+    @Test
+    void fill_whenEvictedAfterReadStarted_shouldNotCache() {
+        long readStartedAt = System.currentTimeMillis();
+        cache.evict("testId").block();
+
+        cache.fill(product, readStartedAt).block();
+
+        StepVerifier.create(cache.get("testId")).verifyComplete();
+    }
+
+    @Test
+    void fill_whenUnchangedSinceReadStarted_shouldCache() {
+        cache.fill(product, System.currentTimeMillis()).block();
+        cache.evict("testId").block();
+        long readStartedAt = System.currentTimeMillis() + 1;
+
+        cache.fill(product, readStartedAt).block();
+
+        StepVerifier.create(cache.get("testId"))
+                .expectNext(product)
+                .verifyComplete();
+    }
+
+    @Test
+    void fill_whenFull_shouldEvictLeastRecentlyUsed() {
+        LocalProductCache small = new LocalProductCache(2, Duration.ofMinutes(1));
+        Product other = Product.builder().productId("otherId").name("Other Product").build();
+        Product third = Product.builder().productId("thirdId").name("Third Product").build();
+        small.fill(product, System.currentTimeMillis()).block();
+        small.fill(other, System.currentTimeMillis()).block();
+        small.get("testId").block();
+
+        small.fill(third, System.currentTimeMillis()).block();
+
+        StepVerifier.create(small.get("testId"))
+                .expectNext(product)
+                .verifyComplete();
+        StepVerifier.create(small.get("otherId")).verifyComplete();
+        StepVerifier.create(small.get("thirdId"))
+                .expectNext(third)
+                .verifyComplete();
+    }
+
+    @Test
+    void evict_shouldNotTakeRoomFromCachedProducts() {
+        LocalProductCache small = new LocalProductCache(2, Duration.ofMinutes(1));
+        Product other = Product.builder().productId("otherId").name("Other Product").build();
+        small.fill(product, System.currentTimeMillis()).block();
+        small.fill(other, System.currentTimeMillis()).block();
+
+        for (int i = 0; i < 10; i++) {
+            small.evict("evicted" + i).block();
+        }
+
+        StepVerifier.create(small.get("testId"))
+                .expectNext(product)
+                .verifyComplete();
+        StepVerifier.create(small.get("otherId"))
+                .expectNext(other)
+                .verifyComplete();
+    }
+
+    @Test
+    void fill_whenEvictionMarkerDroppedAfterReadStarted_shouldNotCache() {
+        LocalProductCache small = new LocalProductCache(2, Duration.ofMinutes(1));
+        long readStartedAt = System.currentTimeMillis();
+        small.evict("testId").block();
+        // Enough later evictions to drop the marker above
+        for (int i = 0; i < 10; i++) {
+            small.evict("evicted" + i).block();
+        }
+
+        small.fill(product, readStartedAt).block();
+
+        StepVerifier.create(small.get("testId")).verifyComplete();
+    }
+
+    @Test
+    void get_whenEntryExpired_shouldMiss() {
+        LocalProductCache expiring = new LocalProductCache(10, Duration.ZERO.minusMillis(1));
+        expiring.fill(product, System.currentTimeMillis()).block();
+
+        StepVerifier.create(expiring.get("testId")).verifyComplete();
+    }
+}
@@ -0,0 +1,60 @@
+package com.afrisol.ProductService.config;
+
+import com.afrisol.ProductService.dto.ProductRequestDto;
+import com.afrisol.ProductService.dto.ProductResponseDto;
+import com.afrisol.ProductService.exception.GlobalExceptionHandler;
+import com.afrisol.ProductService.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeHint;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeHintsTest {
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_shouldExposeValidatedFields() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ProductRequestDto.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Product.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+    }
+
+    @Test
+    void registerHints_shouldBindDtoAccessors() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(ProductResponseDto.class.getMethod("getPrice")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(ProductRequestDto.class.getMethod("setType", String.class)).test(hints));
+    }
+
+    @Test
+    void registerHints_shouldIncludeBuildersAndExceptionHandler() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Product.ProductBuilder.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(GlobalExceptionHandler.class).test(hints));
+    }
+
+    @Test
+    void registerHints_shouldAllowVirtualThreadExecutorLookup() {
+        // Matched by name, the test runtime may predate the method
+        TypeHint executors = hints.reflection().getTypeHint(Executors.class);
+
+        assertNotNull(executors);
+        assertTrue(executors.methods().anyMatch(method -> method.getName().equals("newVirtualThreadPerTaskExecutor")
+                && method.getParameterTypes().isEmpty() && method.getMode() == ExecutableMode.INVOKE));
+    }
+}
@@ -0,0 +1,145 @@
+package com.afrisol.ProductService.config;
+
+import com.afrisol.ProductService.model.Product;
+import com.afrisol.ProductService.model.ProductName;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductIndexInitializerTest {
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private ReactiveIndexOperations indexOps;
+
+    private ProductIndexInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        initializer = new ProductIndexInitializer(mongoTemplate, true, Duration.ofDays(30), Duration.ofDays(1), "default");
+        when(mongoTemplate.indexOps(Mockito.<Class<?>>any())).thenReturn(indexOps);
+        Mockito.lenient().when(indexOps.ensureIndex(Mockito.any(IndexDefinition.class))).thenReturn(Mono.just("index"));
+        Mockito.lenient().when(indexOps.getIndexInfo()).thenReturn(Flux.empty());
+    }
+
+    @Test
+    void run_whenBackfillAlreadyApplied_shouldNotScanProducts() {
+        when(mongoTemplate.exists(Mockito.any(Query.class), Mockito.eq("product_migrations"))).thenReturn(Mono.just(true));
+
+        initializer.run(null);
+
+        verify(mongoTemplate, Mockito.never()).updateMulti(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class), Mockito.<Class<?>>any());
+    }
+
+    @Test
+    void run_whenBackfillNotApplied_shouldRunAndRecordIt() {
+        when(mongoTemplate.exists(Mockito.any(Query.class), Mockito.eq("product_migrations"))).thenReturn(Mono.just(false));
+        when(mongoTemplate.updateMulti(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class), Mockito.<Class<?>>any()))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+        when(mongoTemplate.insert(Mockito.any(Document.class), Mockito.eq("product_migrations")))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(mongoTemplate.getCollectionName(ProductName.class)).thenReturn("product_names");
+        when(mongoTemplate.aggregate(Mockito.any(Aggregation.class), Mockito.eq(Product.class), Mockito.eq(Document.class)))
+                .thenReturn(Flux.empty());
+
+        initializer.run(null);
+
+        verify(mongoTemplate, Mockito.times(3)).updateMulti(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class), Mockito.<Class<?>>any());
+        verify(mongoTemplate).insert(Mockito.argThat((Document marker) -> marker.get("_id").equals("backfill-deleted-and-tenant")),
+                Mockito.eq("product_migrations"));
+    }
+
+    @Test
+    void run_whenNamesNotReserved_shouldReserveNamesOfLiveProducts() {
+        when(mongoTemplate.exists(Mockito.any(Query.class), Mockito.eq("product_migrations")))
+                .thenAnswer(invocation -> Mono.just(!isMigration(invocation.getArgument(0), "reserve-product-names")));
+        when(mongoTemplate.insert(Mockito.any(Document.class), Mockito.eq("product_migrations")))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(mongoTemplate.getCollectionName(ProductName.class)).thenReturn("product_names");
+        when(mongoTemplate.aggregate(Mockito.any(Aggregation.class), Mockito.eq(Product.class), Mockito.eq(Document.class)))
+                .thenReturn(Flux.empty());
+
+        initializer.run(null);
+
+        ArgumentCaptor<Aggregation> reservation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(reservation.capture(), Mockito.eq(Product.class), Mockito.eq(Document.class));
+        List<Document> pipeline = reservation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(new Document("deleted", false), pipeline.get(0).get("$match"));
+        assertTrue(pipeline.get(2).get("$merge", Document.class).toJson().contains("product_names"));
+        // The unique index exists before any reservation is written
+        verify(indexOps).ensureIndex(Mockito.argThat((IndexDefinition index) -> index.getIndexOptions().get("unique") != null));
+        verify(mongoTemplate).insert(Mockito.argThat((Document marker) -> marker.get("_id").equals("reserve-product-names")),
+                Mockito.eq("product_migrations"));
+    }
+
+    @Test
+    void run_whenTombstoneRetentionChanged_shouldAlterExistingTtlIndex() {
+        when(mongoTemplate.exists(Mockito.any(Query.class), Mockito.eq("product_migrations"))).thenReturn(Mono.just(true));
+        // Created with a week of retention, the configured one is now 30 days; the snapshot index is unchanged
+        when(indexOps.getIndexInfo()).thenReturn(Flux.just(
+                ttlIndex("deletedAt_ttl", "deletedAt", Duration.ofDays(7)),
+                ttlIndex("takenAt_ttl", "takenAt", Duration.ofDays(1))));
+        when(mongoTemplate.getCollectionName(Product.class)).thenReturn("products");
+        when(mongoTemplate.executeCommand(Mockito.any(Document.class))).thenReturn(Mono.just(new Document("ok", 1)));
+
+        initializer.run(null);
+
+        ArgumentCaptor<Document> command = ArgumentCaptor.forClass(Document.class);
+        verify(mongoTemplate).executeCommand(command.capture());
+        assertEquals("products", command.getValue().getString("collMod"));
+        assertEquals(new Document("name", "deletedAt_ttl").append("expireAfterSeconds", Duration.ofDays(30).toSeconds()),
+                command.getValue().get("index", Document.class));
+        // Neither TTL index is created again, which would conflict with the existing options
+        verify(indexOps, Mockito.times(3)).ensureIndex(Mockito.any(IndexDefinition.class));
+    }
+
+    @Test
+    void run_whenLiveProductsShareName_shouldFailNamingTheCause() {
+        when(mongoTemplate.exists(Mockito.any(Query.class), Mockito.eq("product_migrations")))
+                .thenAnswer(invocation -> Mono.just(!isMigration(invocation.getArgument(0), "reserve-product-names")));
+        when(mongoTemplate.getCollectionName(ProductName.class)).thenReturn("product_names");
+        when(mongoTemplate.aggregate(Mockito.any(Aggregation.class), Mockito.eq(Product.class), Mockito.eq(Document.class)))
+                .thenReturn(Flux.error(new DuplicateKeyException("E11000 duplicate key error")));
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> initializer.run(null));
+
+        assertTrue(failure.getMessage().contains("Live products already share a name"));
+    }
+
+    private static boolean isMigration(Query query, String migration) {
+        return migration.equals(query.getQueryObject().get("_id"));
+    }
+
+    private static IndexInfo ttlIndex(String name, String field, Duration expiry) {
+        return IndexInfo.indexInfoOf(new Document("name", name)
+                .append("key", new Document(field, 1))
+                .append("expireAfterSeconds", expiry.toSeconds()));
+    }
+}
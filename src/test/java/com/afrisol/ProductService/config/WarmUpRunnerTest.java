@@ -0,0 +1,126 @@
+package com.afrisol.ProductService.config;
+
+import com.afrisol.ProductService.cache.LocalProductCache;
+import com.afrisol.ProductService.dto.ProductRequestDto;
+import com.afrisol.ProductService.model.AccessSnapshot;
+import com.afrisol.ProductService.model.Product;
+import com.afrisol.ProductService.repository.AccessSnapshotRepository;
+import com.afrisol.ProductService.repository.ProductRepository;
+import com.afrisol.ProductService.validation.ProductRequestValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WarmUpRunnerTest {
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private AccessSnapshotRepository accessSnapshotRepository;
+    @Mock
+    private ProductRequestValidator productRequestValidator;
+    @Mock
+    private WebClient.Builder webClientBuilder;
+
+    private LocalProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        productCache = new LocalProductCache(100, Duration.ofMinutes(1));
+        Mockito.lenient().when(productRequestValidator.validate(Mockito.any(ProductRequestDto.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    }
+
+    @Test
+    void run_shouldPreloadHottestLiveProducts() {
+        when(mongoTemplate.executeCommand(Mockito.any(Document.class))).thenReturn(Mono.just(new Document("ok", 1)));
+        when(accessSnapshotRepository.findAll()).thenReturn(Flux.just(snapshot(
+                new AccessSnapshot.Entry("default", "cold", 1),
+                new AccessSnapshot.Entry("default", "hot", 50),
+                new AccessSnapshot.Entry("default", "deleted", 20))));
+        when(productRepository.findAllById(List.of("hot", "deleted"))).thenReturn(Flux.just(
+                Product.builder().productId("hot").tenantId("default").build(),
+                Product.builder().productId("deleted").tenantId("default").deleted(true).build()));
+
+        newRunner(2, Duration.ofSeconds(5)).run(new DefaultApplicationArguments());
+
+        StepVerifier.create(productCache.get("hot"))
+                .expectNextMatches(product -> product.getProductId().equals("hot"))
+                .verifyComplete();
+        StepVerifier.create(productCache.get("deleted")).verifyComplete();
+        StepVerifier.create(productCache.get("cold")).verifyComplete();
+    }
+
+    @Test
+    void run_shouldSumSnapshotsOfAllReplicas() {
+        when(mongoTemplate.executeCommand(Mockito.any(Document.class))).thenReturn(Mono.just(new Document("ok", 1)));
+        // Each replica alone ranks "single" first, together "shared" is the hottest
+        when(accessSnapshotRepository.findAll()).thenReturn(Flux.just(
+                snapshot(new AccessSnapshot.Entry("default", "single", 30), new AccessSnapshot.Entry("default", "shared", 20)),
+                snapshot(new AccessSnapshot.Entry("default", "other", 30), new AccessSnapshot.Entry("default", "shared", 20))));
+        when(productRepository.findAllById(List.of("shared"))).thenReturn(Flux.just(
+                Product.builder().productId("shared").tenantId("default").build()));
+
+        newRunner(1, Duration.ofSeconds(5)).run(new DefaultApplicationArguments());
+
+        StepVerifier.create(productCache.get("shared"))
+                .expectNextMatches(product -> product.getProductId().equals("shared"))
+                .verifyComplete();
+    }
+
+    @Test
+    void run_whenWarmUpExceedsTimeout_shouldGiveUpAndLetStartupContinue() {
+        when(mongoTemplate.executeCommand(Mockito.any(Document.class))).thenReturn(Mono.never());
+        when(accessSnapshotRepository.findAll()).thenReturn(Flux.empty());
+        WarmUpRunner runner = newRunner(10, Duration.ofMillis(100));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> runner.run(new DefaultApplicationArguments()));
+    }
+
+    @Test
+    void run_whenMongoUnavailable_shouldNotFailStartup() {
+        when(mongoTemplate.executeCommand(Mockito.any(Document.class))).thenReturn(Mono.error(new RuntimeException("Connection refused")));
+        when(accessSnapshotRepository.findAll()).thenReturn(Flux.error(new RuntimeException("Connection refused")));
+        WarmUpRunner runner = newRunner(10, Duration.ofSeconds(5));
+
+        assertDoesNotThrow(() -> runner.run(new DefaultApplicationArguments()));
+        // Without a server port the controllers are not exercised
+        verify(webClientBuilder, Mockito.never()).baseUrl(Mockito.anyString());
+    }
+
+    private AccessSnapshot snapshot(AccessSnapshot.Entry... entries) {
+        return AccessSnapshot.builder()
+                .snapshotId(AccessSnapshot.HOT_PRODUCTS + ":" + UUID.randomUUID())
+                .entries(List.of(entries))
+                .build();
+    }
+
+    private WarmUpRunner newRunner(int hotProducts, Duration timeout) {
+        return new WarmUpRunner(mongoTemplate, productRepository, accessSnapshotRepository, productCache,
+                new ObjectMapper().findAndRegisterModules(), productRequestValidator, webClientBuilder, new MockEnvironment(),
+                true, 2, hotProducts, 1, timeout, "default");
+    }
+}
@@ -0,0 +1,117 @@
+package com.afrisol.ProductService.config;
+
+import com.afrisol.ProductService.controller.ProductController;
+import com.afrisol.ProductService.dto.ProductResponseDto;
+import com.afrisol.ProductService.service.ProductService;
+import com.afrisol.ProductService.tenant.TenantIdArgumentResolver;
+import com.afrisol.ProductService.validation.ProductRequestValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Round-trips a product list through the controller in both wire formats. JSON is served unless
+ * the client accepts Smile, both formats decode to the same products, and Smile is the smaller.
+ */
+@WebFluxTest(ProductController.class)
+@Import({WireFormatConfig.class, ExecutionConfig.class, ProductRequestValidator.class, TenantIdArgumentResolver.class})
+class WireFormatConfigTest {
+    @MockBean
+    private ProductService productService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private List<ProductResponseDto> products;
+
+    @BeforeEach
+    void setUp() {
+        products = products(100);
+        when(productService.getAllProducts(Mockito.eq("default"), Mockito.anyString()))
+                .thenAnswer(invocation -> Flux.fromIterable(products));
+    }
+
+    @Test
+    void getAllProducts_whenSmileAccepted_shouldReturnSmile() throws Exception {
+        byte[] smile = fetch(WireFormatConfig.APPLICATION_SMILE, WireFormatConfig.APPLICATION_SMILE);
+
+        assertEquals(products, List.of(smileMapper.readValue(smile, ProductResponseDto[].class)));
+    }
+
+    @Test
+    void getAllProducts_whenNoAcceptHeader_shouldReturnJson() throws Exception {
+        byte[] json = fetch(null, MediaType.APPLICATION_JSON);
+
+        assertEquals(products, List.of(jsonMapper.readValue(json, ProductResponseDto[].class)));
+    }
+
+    @Test
+    void getAllProducts_inBothFormats_shouldDecodeToSameProducts() throws Exception {
+        byte[] json = fetch(MediaType.APPLICATION_JSON, MediaType.APPLICATION_JSON);
+        byte[] smile = fetch(WireFormatConfig.APPLICATION_SMILE, WireFormatConfig.APPLICATION_SMILE);
+
+        assertEquals(List.of(jsonMapper.readValue(json, ProductResponseDto[].class)),
+                List.of(smileMapper.readValue(smile, ProductResponseDto[].class)));
+        assertTrue(smile.length < json.length);
+    }
+
+    @Test
+    void smileMapper_forProductLists_shouldEncodeAQuarterSmallerThanJson() throws Exception {
+        // Mappers built the way WireFormatConfig builds them, property names are back-referenced after the first product
+        ObjectMapper configuredJson = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper configuredSmile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+        for (int size : new int[]{10, 100, 1000}) {
+            List<ProductResponseDto> list = products(size);
+            byte[] json = configuredJson.writeValueAsBytes(list);
+            byte[] smile = configuredSmile.writeValueAsBytes(list);
+
+            assertTrue(smile.length * 4 <= json.length * 3, size + " products: " + smile.length + " Smile bytes vs " + json.length + " JSON");
+            assertEquals(list, List.of(configuredSmile.readValue(smile, ProductResponseDto[].class)));
+        }
+    }
+
+    private static List<ProductResponseDto> products(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> ProductResponseDto.builder()
+                        .id("65f1c2a9e4b0a1b2c3d4" + String.format("%04d", i))
+                        .name("Test Product " + i)
+                        .description("Test Description for product number " + i)
+                        .type("Electronics")
+                        .price(100.0 + i)
+                        .quantity(i)
+                        .build())
+                .toList();
+    }
+
+    private byte[] fetch(MediaType accept, MediaType expectedContentType) {
+        WebTestClient.RequestHeadersSpec<?> request = webTestClient.get().uri("/api/v1/products");
+        if (accept != null) {
+            request = request.accept(accept);
+        }
+        return request.exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(expectedContentType)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
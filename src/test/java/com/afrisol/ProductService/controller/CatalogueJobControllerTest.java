@@ -0,0 +1,144 @@
+package com.afrisol.ProductService.controller;
+
+import com.afrisol.ProductService.config.ExecutionConfig;
+import com.afrisol.ProductService.dto.JobRequestDto;
+import com.afrisol.ProductService.dto.JobResponseDto;
+import com.afrisol.ProductService.exception.CustomException;
+import com.afrisol.ProductService.model.JobStatus;
+import com.afrisol.ProductService.model.JobType;
+import com.afrisol.ProductService.service.CatalogueJobService;
+import com.afrisol.ProductService.tenant.TenantIdArgumentResolver;
+import com.afrisol.ProductService.validation.ProductRequestValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(CatalogueJobController.class)
+@Import({ExecutionConfig.class, ProductRequestValidator.class, TenantIdArgumentResolver.class})
+public class CatalogueJobControllerTest {
+    @MockBean
+    private CatalogueJobService catalogueJobService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private JobRequestDto jobDto;
+    private JobResponseDto jobResponseDto;
+
+    @BeforeEach
+    void setUp() {
+        jobDto = new JobRequestDto();
+        jobDto.setType(JobType.REPRICE);
+        jobDto.setProductType("Electronics");
+        jobDto.setPercentage(5.0);
+
+        jobResponseDto = new JobResponseDto();
+        jobResponseDto.setId("jobId");
+        jobResponseDto.setType(JobType.REPRICE);
+        jobResponseDto.setStatus(JobStatus.PENDING);
+        jobResponseDto.setProductType("Electronics");
+        jobResponseDto.setPercentage(5.0);
+    }
+
+    @Test
+    void submitJob_whenValid_shouldReturn202() {
+        when(catalogueJobService.submitJob(Mockito.any(), Mockito.eq("default"), Mockito.any()))
+                .thenReturn(Mono.just(jobResponseDto));
+
+        webTestClient.post()
+                .uri("/api/v1/jobs")
+                .bodyValue(jobDto)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody(JobResponseDto.class)
+                .isEqualTo(jobResponseDto);
+
+        Mockito.verify(catalogueJobService).submitJob(Mockito.any(), Mockito.eq("default"), Mockito.any());
+    }
+
+    @Test
+    void submitJob_whenInvalid_shouldReturn400WithoutSubmitting() {
+        jobDto.setProductType("Electronics 2");
+        jobDto.setPercentage(-150.0);
+
+        webTestClient.post()
+                .uri("/api/v1/jobs")
+                .bodyValue(jobDto)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.productType").isEqualTo("Product type can only contain letters and spaces")
+                .jsonPath("$.percentage").isEqualTo("Percentage must be greater than -100");
+
+        Mockito.verify(catalogueJobService, Mockito.never()).submitJob(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void getJob_whenJobExists_shouldReturnProgress() {
+        jobResponseDto.setStatus(JobStatus.RUNNING);
+        jobResponseDto.setTotal(1000);
+        jobResponseDto.setProcessed(500);
+        when(catalogueJobService.getJob(Mockito.eq("jobId"), Mockito.eq("default"), Mockito.anyString()))
+                .thenReturn(Mono.just(jobResponseDto));
+
+        webTestClient.get()
+                .uri("/api/v1/jobs/{jobId}", "jobId")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JobResponseDto.class)
+                .isEqualTo(jobResponseDto);
+
+        Mockito.verify(catalogueJobService).getJob(Mockito.eq("jobId"), Mockito.eq("default"), Mockito.anyString());
+    }
+
+    @Test
+    void getJob_whenJobNotFound_shouldReturn404() {
+        when(catalogueJobService.getJob(Mockito.eq("nonExistentId"), Mockito.eq("default"), Mockito.anyString()))
+                .thenReturn(Mono.error(new CustomException(HttpStatus.NOT_FOUND, "Job not found with ID: nonExistentId")));
+
+        webTestClient.get()
+                .uri("/api/v1/jobs/{jobId}", "nonExistentId")
+                .exchange()
+                .expectStatus().isNotFound();
+
+        Mockito.verify(catalogueJobService).getJob(Mockito.eq("nonExistentId"), Mockito.eq("default"), Mockito.anyString());
+    }
+
+    @Test
+    void cancelJob_whenJobRunning_shouldReturnCancelledJob() {
+        jobResponseDto.setStatus(JobStatus.CANCELLED);
+        when(catalogueJobService.cancelJob(Mockito.eq("jobId"), Mockito.eq("default"), Mockito.anyString()))
+                .thenReturn(Mono.just(jobResponseDto));
+
+        webTestClient.post()
+                .uri("/api/v1/jobs/{jobId}/cancel", "jobId")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JobResponseDto.class)
+                .isEqualTo(jobResponseDto);
+
+        Mockito.verify(catalogueJobService).cancelJob(Mockito.eq("jobId"), Mockito.eq("default"), Mockito.anyString());
+    }
+
+    @Test
+    void cancelJob_whenJobFinished_shouldReturn409() {
+        when(catalogueJobService.cancelJob(Mockito.eq("jobId"), Mockito.eq("default"), Mockito.anyString()))
+                .thenReturn(Mono.error(new CustomException(HttpStatus.CONFLICT, "Job with ID: jobId has already finished with status: COMPLETED")));
+
+        webTestClient.post()
+                .uri("/api/v1/jobs/{jobId}/cancel", "jobId")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+
+        Mockito.verify(catalogueJobService).cancelJob(Mockito.eq("jobId"), Mockito.eq("default"), Mockito.anyString());
+    }
+}
@@ -1,28 +1,39 @@
 package com.afrisol.ProductService.controller;
 
+import com.afrisol.ProductService.config.ExecutionConfig;
+import com.afrisol.ProductService.config.WireFormatConfig;
+import com.afrisol.ProductService.dto.PopularProductDto;
+import com.afrisol.ProductService.dto.PriceHistoryPointDto;
 import com.afrisol.ProductService.dto.ProductRequestDto;
 import com.afrisol.ProductService.dto.ProductResponseDto;
 import com.afrisol.ProductService.exception.ProductAlreadyExistsException;
 import com.afrisol.ProductService.exception.ProductNotFoundException;
 import com.afrisol.ProductService.service.ProductService;
+import com.afrisol.ProductService.tenant.TenantIdArgumentResolver;
+import com.afrisol.ProductService.validation.ProductRequestValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.mockito.Mockito.when;
 
-@WebFluxTest(ProductController.class)
+@WebFluxTest(controllers = ProductController.class, properties = "product.tenant.ids=acme")
+@Import({WireFormatConfig.class, ExecutionConfig.class, ProductRequestValidator.class, TenantIdArgumentResolver.class})
 public class ProductControllerTest {
     @MockBean
     private ProductService productService;
@@ -56,7 +67,7 @@ public class ProductControllerTest {
 
     @Test
     void addProduct_whenValid_shouldReturn200() {
-        when(productService.addProduct(Mockito.any(), Mockito.any()))
+        when(productService.addProduct(Mockito.any(), Mockito.eq("default"), Mockito.any()))
                 .thenReturn(Mono.just(productResponseDto));
 
         webTestClient.post()
@@ -67,13 +78,13 @@ public class ProductControllerTest {
                 .expectBody(ProductResponseDto.class)
                 .isEqualTo(productResponseDto);
 
-        Mockito.verify(productService).addProduct(Mockito.any(), Mockito.any());
+        Mockito.verify(productService).addProduct(Mockito.any(), Mockito.eq("default"), Mockito.any());
     }
 
 
     @Test
     void addProduct_whenInvalid_shouldReturn404() {
-        when(productService.addProduct(Mockito.any(), Mockito.any()))
+        when(productService.addProduct(Mockito.any(), Mockito.eq("default"), Mockito.any()))
                 .thenReturn(Mono.error(new ProductAlreadyExistsException("Product already exists!")));
 
         webTestClient.post()
@@ -82,12 +93,60 @@ public class ProductControllerTest {
                 .exchange()
                 .expectStatus().is4xxClientError();
 
-        Mockito.verify(productService).addProduct(Mockito.any(), Mockito.any());
+        Mockito.verify(productService).addProduct(Mockito.any(), Mockito.eq("default"), Mockito.any());
+    }
+
+    @Test
+    void addProduct_whenBodyInvalid_shouldReturn400WithFieldErrors() {
+        productDto.setName("");
+        productDto.setType("Electronics 2");
+
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .bodyValue(productDto)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Product name cannot be blank")
+                .jsonPath("$.type").isEqualTo("Product type can only contain letters and spaces");
+
+        Mockito.verify(productService, Mockito.never()).addProduct(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void addProduct_whenSmileRequested_shouldExchangeSmile() {
+        when(productService.addProduct(Mockito.any(), Mockito.eq("default"), Mockito.any()))
+                .thenReturn(Mono.just(productResponseDto));
+
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .contentType(WireFormatConfig.APPLICATION_SMILE)
+                .accept(WireFormatConfig.APPLICATION_SMILE)
+                .bodyValue(productDto)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(WireFormatConfig.APPLICATION_SMILE)
+                .expectBody(ProductResponseDto.class)
+                .isEqualTo(productResponseDto);
+    }
+
+    @Test
+    void addProduct_whenSmileBodyInvalid_shouldReturn400() {
+        productDto.setPrice(null);
+
+        webTestClient.post()
+                .uri("/api/v1/products")
+                .contentType(WireFormatConfig.APPLICATION_SMILE)
+                .bodyValue(productDto)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        Mockito.verify(productService, Mockito.never()).addProduct(Mockito.any(), Mockito.any(), Mockito.any());
     }
 
     @Test
     void updateProduct_whenProductExists_shouldReturnUpdatedProduct() {
-        when(productService.updateProduct(Mockito.any(), Mockito.any(), Mockito.any()))
+        when(productService.updateProduct(Mockito.any(), Mockito.any(), Mockito.eq("default"), Mockito.any()))
                 .thenReturn(Mono.just(productResponseDto));
 
         webTestClient.put()
@@ -98,13 +157,13 @@ public class ProductControllerTest {
                 .expectBody(ProductResponseDto.class)
                 .isEqualTo(productResponseDto);
 
-        Mockito.verify(productService).updateProduct(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(productService).updateProduct(Mockito.any(), Mockito.any(), Mockito.eq("default"), Mockito.any());
     }
 
 
     @Test
     void updateProduct_whenProductNotFound_shouldReturn404() {
-        when(productService.updateProduct(Mockito.any(), Mockito.any(), Mockito.any()))
+        when(productService.updateProduct(Mockito.any(), Mockito.any(), Mockito.eq("default"), Mockito.any()))
                 .thenReturn(Mono.error(new ProductNotFoundException("Product not found with ID: testId")));
 
         webTestClient.put()
@@ -113,12 +172,12 @@ public class ProductControllerTest {
                 .exchange()
                 .expectStatus().isNotFound();
 
-        Mockito.verify(productService).updateProduct(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(productService).updateProduct(Mockito.any(), Mockito.any(), Mockito.eq("default"), Mockito.any());
     }
 
     @Test
     void updateProduct_whenDatabaseErrorOccurs_shouldReturn500() {
-        when(productService.updateProduct(Mockito.any(), Mockito.any(), Mockito.any()))
+        when(productService.updateProduct(Mockito.any(), Mockito.any(), Mockito.eq("default"), Mockito.any()))
                 .thenReturn(Mono.error(new RuntimeException("Database error")));
 
         webTestClient.put()
@@ -127,12 +186,12 @@ public class ProductControllerTest {
                 .exchange()
                 .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
 
-        Mockito.verify(productService).updateProduct(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(productService).updateProduct(Mockito.any(), Mockito.any(), Mockito.eq("default"), Mockito.any());
     }
 
     @Test
     void deleteProduct_whenProductExists_shouldReturnNoContent() {
-        when(productService.deleteProduct(Mockito.anyString(), Mockito.anyString()))
+        when(productService.deleteProduct(Mockito.anyString(), Mockito.eq("default"), Mockito.anyString()))
                 .thenReturn(Mono.empty());
 
         webTestClient.delete()
@@ -140,12 +199,12 @@ public class ProductControllerTest {
                 .exchange()
                 .expectStatus().isNoContent();
 
-        Mockito.verify(productService).deleteProduct(Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(productService).deleteProduct(Mockito.anyString(), Mockito.eq("default"), Mockito.anyString());
     }
 
     @Test
     void deleteProduct_whenProductNotFound_shouldReturn404() {
-        when(productService.deleteProduct(Mockito.anyString(), Mockito.anyString()))
+        when(productService.deleteProduct(Mockito.anyString(), Mockito.eq("default"), Mockito.anyString()))
                 .thenReturn(Mono.error(new ProductNotFoundException("Product not found with ID: testId")));
 
         webTestClient.delete()
@@ -153,12 +212,12 @@ public class ProductControllerTest {
                 .exchange()
                 .expectStatus().isNotFound();
 
-        Mockito.verify(productService).deleteProduct(Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(productService).deleteProduct(Mockito.anyString(), Mockito.eq("default"), Mockito.anyString());
     }
 
     @Test
     void deleteProduct_whenDatabaseErrorOccurs_shouldReturn500() {
-        when(productService.deleteProduct(Mockito.anyString(), Mockito.anyString()))
+        when(productService.deleteProduct(Mockito.anyString(), Mockito.eq("default"), Mockito.anyString()))
                 .thenReturn(Mono.error(new RuntimeException("Database error")));
 
         webTestClient.delete()
@@ -166,12 +225,38 @@ public class ProductControllerTest {
                 .exchange()
                 .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
 
-        Mockito.verify(productService).deleteProduct(Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(productService).deleteProduct(Mockito.anyString(), Mockito.eq("default"), Mockito.anyString());
+    }
+
+    @Test
+    void restoreProduct_whenProductDeleted_shouldReturnRestoredProduct() {
+        when(productService.restoreProduct(Mockito.eq("testId"), Mockito.eq("default"), Mockito.anyString()))
+                .thenReturn(Mono.just(productResponseDto));
+
+        webTestClient.post()
+                .uri("/api/v1/products/{productId}/restore", "testId")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductResponseDto.class)
+                .isEqualTo(productResponseDto);
+
+        Mockito.verify(productService).restoreProduct(Mockito.eq("testId"), Mockito.eq("default"), Mockito.anyString());
+    }
+
+    @Test
+    void restoreProduct_whenNoTombstone_shouldReturn404() {
+        when(productService.restoreProduct(Mockito.eq("testId"), Mockito.eq("default"), Mockito.anyString()))
+                .thenReturn(Mono.error(new ProductNotFoundException("Deleted product not found with ID: testId")));
+
+        webTestClient.post()
+                .uri("/api/v1/products/{productId}/restore", "testId")
+                .exchange()
+                .expectStatus().isNotFound();
     }
 
     @Test
     void getProduct_whenValidId_shouldReturnProduct() {
-        when(productService.getProduct(Mockito.eq("testId"), Mockito.anyString()))
+        when(productService.getProduct(Mockito.eq("testId"), Mockito.eq("default"), Mockito.anyString()))
                 .thenReturn(Mono.just(productResponseDto));
 
         webTestClient.get()
@@ -187,12 +272,79 @@ public class ProductControllerTest {
                     // Add more assertions as needed
                 });
 
-        Mockito.verify(productService).getProduct(Mockito.eq("testId"), Mockito.anyString());
+        Mockito.verify(productService).getProduct(Mockito.eq("testId"), Mockito.eq("default"), Mockito.anyString());
+    }
+
+    @Test
+    void getProduct_whenTenantHeaderPresent_shouldScopeToTenant() {
+        when(productService.getProduct(Mockito.eq("testId"), Mockito.eq("acme"), Mockito.anyString()))
+                .thenReturn(Mono.just(productResponseDto));
+
+        webTestClient.get()
+                .uri("/api/v1/products/{productId}", "testId")
+                .header(TenantIdArgumentResolver.TENANT_HEADER, "acme")
+                .exchange()
+                .expectStatus().isOk();
+
+        Mockito.verify(productService).getProduct(Mockito.eq("testId"), Mockito.eq("acme"), Mockito.anyString());
+    }
+
+    @Test
+    void getProduct_whenTenantHeaderInvalid_shouldReturn400() {
+        webTestClient.get()
+                .uri("/api/v1/products/{productId}", "testId")
+                .header(TenantIdArgumentResolver.TENANT_HEADER, "acme:eu")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        Mockito.verify(productService, Mockito.never()).getProduct(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void getProduct_whenTenantUnknown_shouldReturn403() {
+        webTestClient.get()
+                .uri("/api/v1/products/{productId}", "testId")
+                .header(TenantIdArgumentResolver.TENANT_HEADER, "initech")
+                .exchange()
+                .expectStatus().isForbidden();
+
+        Mockito.verify(productService, Mockito.never()).getProduct(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void getPopularProducts_shouldReturnTopProducts() {
+        PopularProductDto popular = new PopularProductDto("testId", 120, 1.0);
+        when(productService.getPopularProducts(Mockito.eq(5), Mockito.eq("default"), Mockito.anyString()))
+                .thenReturn(Flux.just(popular));
+
+        webTestClient.get()
+                .uri("/api/v1/products/popular?limit=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PopularProductDto.class)
+                .isEqualTo(List.of(popular));
+
+        Mockito.verify(productService).getPopularProducts(Mockito.eq(5), Mockito.eq("default"), Mockito.anyString());
+    }
+
+    @Test
+    void getPriceHistory_shouldReturnPoints() {
+        PriceHistoryPointDto point = new PriceHistoryPointDto(Instant.parse("2026-01-02T10:00:00Z"), 100.0, 10);
+        when(productService.getPriceHistory(Mockito.eq("testId"), Mockito.eq(Instant.parse("2026-01-01T00:00:00Z")),
+                Mockito.isNull(), Mockito.eq("default"), Mockito.anyString()))
+                .thenReturn(Flux.just(point));
+
+        webTestClient.get()
+                .uri("/api/v1/products/{productId}/history?from=2026-01-01T00:00:00Z", "testId")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PriceHistoryPointDto.class)
+                .isEqualTo(List.of(point));
     }
 
     @Test
     void getProduct_whenNonexistentId_shouldReturn404() {
-        when(productService.getProduct(Mockito.eq("nonExistentId"), Mockito.anyString()))
+        when(productService.getProduct(Mockito.eq("nonExistentId"), Mockito.eq("default"), Mockito.anyString()))
                 .thenReturn(Mono.error(new ProductNotFoundException("Product not found")));
 
         webTestClient.get()
@@ -200,13 +352,53 @@ public class ProductControllerTest {
                 .exchange()
                 .expectStatus().isNotFound();
 
-        Mockito.verify(productService).getProduct(Mockito.eq("nonExistentId"), Mockito.anyString());
+        Mockito.verify(productService).getProduct(Mockito.eq("nonExistentId"), Mockito.eq("default"), Mockito.anyString());
+    }
+
+
+    @Test
+    void getProduct_whenNonexistentId_shouldReturnErrorBody() {
+        when(productService.getProduct(Mockito.eq("nonExistentId"), Mockito.eq("default"), Mockito.anyString()))
+                .thenReturn(Mono.error(ProductNotFoundException.INSTANCE));
+
+        webTestClient.get()
+                .uri("/api/v1/products/{productId}", "nonExistentId")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Product not found")
+                .jsonPath("$.timestamp").isNumber();
     }
 
+    @Test
+    void getProduct_whenUnexpectedErrorOccurs_shouldReturn500() {
+        when(productService.getProduct(Mockito.eq("testId"), Mockito.eq("default"), Mockito.anyString()))
+                .thenReturn(Mono.error(new RuntimeException("Unexpected error occurred")));
+
+        webTestClient.get()
+                .uri("/api/v1/products/{productId}", "testId")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    void updateProduct_whenWorkQueueFull_shouldReturn503() {
+        when(productService.updateProduct(Mockito.any(), Mockito.eq("testId"), Mockito.eq("default"), Mockito.any()))
+                .thenReturn(Mono.error(new RejectedExecutionException("Task capacity of bounded elastic scheduler reached")));
+
+        webTestClient.put()
+                .uri("/api/v1/products/{productId}", "testId")
+                .bodyValue(productDto)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Service is busy, retry later");
+    }
 
     @Test
     void getAllProducts_whenProductsExist_shouldReturnProductList() {
-        when(productService.getAllProducts(Mockito.anyString()))
+        when(productService.getAllProducts(Mockito.eq("default"), Mockito.anyString()))
                 .thenReturn(Flux.just(productResponseDto));
 
         webTestClient.get()
@@ -221,12 +413,12 @@ public class ProductControllerTest {
                     assert products.get(0).getId().equals("testId");
                 });
 
-        Mockito.verify(productService).getAllProducts(Mockito.anyString());
+        Mockito.verify(productService).getAllProducts(Mockito.eq("default"), Mockito.anyString());
     }
 
     @Test
     void getAllProducts_whenNoProductsExist_shouldReturnEmptyList() {
-        when(productService.getAllProducts(Mockito.anyString()))
+        when(productService.getAllProducts(Mockito.eq("default"), Mockito.anyString()))
                 .thenReturn(Flux.empty());
 
         webTestClient.get()
@@ -240,12 +432,12 @@ public class ProductControllerTest {
                     assert products.isEmpty();
                 });
 
-        Mockito.verify(productService).getAllProducts(Mockito.anyString());
+        Mockito.verify(productService).getAllProducts(Mockito.eq("default"), Mockito.anyString());
     }
 
     @Test
     void getAllProducts_whenUnexpectedErrorOccurs_shouldReturn500() {
-        when(productService.getAllProducts(Mockito.anyString()))
+        when(productService.getAllProducts(Mockito.eq("default"), Mockito.anyString()))
                 .thenReturn(Flux.error(new RuntimeException("Database error")));
 
         webTestClient.get()
@@ -253,7 +445,7 @@ public class ProductControllerTest {
                 .exchange()
                 .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
 
-        Mockito.verify(productService).getAllProducts(Mockito.anyString());
+        Mockito.verify(productService).getAllProducts(Mockito.eq("default"), Mockito.anyString());
     }
 
 
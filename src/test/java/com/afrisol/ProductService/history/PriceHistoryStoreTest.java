@@ -0,0 +1,134 @@
+package com.afrisol.ProductService.history;
+
+import com.afrisol.ProductService.model.PriceHistoryBucket;
+import com.afrisol.ProductService.model.Product;
+import com.afrisol.ProductService.repository.PriceHistoryRepository;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PriceHistoryStoreTest {
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+    @Mock
+    private ReactiveBulkOperations bulkOps;
+
+    private PriceHistoryStore store;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        store = new PriceHistoryStore(mongoTemplate, priceHistoryRepository, 2);
+        product = Product.builder()
+                .productId("testId")
+                .name("Test Product")
+                .type("Electronics")
+                .price(100.0)
+                .quantity(10)
+                .sequence(5)
+                .build();
+    }
+
+    @Test
+    void append_shouldPushPointStampedWithChangeTimeToSequenceBlock() {
+        Instant changedAt = Instant.parse("2026-01-02T12:00:00Z");
+        when(mongoTemplate.upsert(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class), Mockito.eq(PriceHistoryBucket.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(0, 0L, null)));
+
+        StepVerifier.create(store.append(product, changedAt)).verifyComplete();
+
+        ArgumentCaptor<Query> bucket = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).upsert(bucket.capture(), update.capture(), Mockito.eq(PriceHistoryBucket.class));
+        // Changes 4 and 5 share the third block of two
+        assertEquals("testId:20260102:0000000002", bucket.getValue().getQueryObject().getString("_id"));
+        PriceHistoryBucket.Point point = (PriceHistoryBucket.Point) ((Update) update.getValue())
+                .getUpdateObject().get("$push", Document.class).get("points");
+        assertEquals(new PriceHistoryBucket.Point(changedAt, 100.0, 10), point);
+    }
+
+    @Test
+    void appendAll_shouldWriteOneBulkUpsertPerProduct() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceHistoryBucket.class)).thenReturn(bulkOps);
+        when(bulkOps.upsert(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class))).thenReturn(bulkOps);
+        when(bulkOps.execute()).thenReturn(Mono.just(Mockito.mock(BulkWriteResult.class)));
+        Product other = Product.builder().productId("otherId").price(50.0).quantity(1).sequence(1).build();
+
+        StepVerifier.create(store.appendAll(List.of(product, other), Instant.now())).verifyComplete();
+
+        verify(bulkOps, Mockito.times(2)).upsert(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class));
+        verify(bulkOps).execute();
+    }
+
+    @Test
+    void appendAll_whenNothingChanged_shouldNotWrite() {
+        StepVerifier.create(store.appendAll(List.of(), Instant.now())).verifyComplete();
+
+        Mockito.verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void find_shouldOnlyReturnPointsInRange() {
+        Instant from = Instant.parse("2026-01-02T12:00:00Z");
+        Instant to = Instant.parse("2026-01-03T12:00:00Z");
+        PriceHistoryBucket first = PriceHistoryBucket.builder()
+                .points(List.of(
+                        new PriceHistoryBucket.Point(Instant.parse("2026-01-02T08:00:00Z"), 90.0, 12),
+                        new PriceHistoryBucket.Point(Instant.parse("2026-01-02T16:00:00Z"), 100.0, 10)))
+                .build();
+        PriceHistoryBucket second = PriceHistoryBucket.builder()
+                .points(List.of(
+                        new PriceHistoryBucket.Point(Instant.parse("2026-01-03T08:00:00Z"), 120.0, 8),
+                        new PriceHistoryBucket.Point(Instant.parse("2026-01-03T16:00:00Z"), 130.0, 6)))
+                .build();
+        when(priceHistoryRepository.findBuckets("testId", "testId:20260102", "testId:20260103:~"))
+                .thenReturn(Flux.just(first, second));
+
+        StepVerifier.create(store.find("testId", from, to))
+                .expectNextMatches(point -> point.getPrice().equals(100.0))
+                .expectNextMatches(point -> point.getPrice().equals(120.0))
+                .verifyComplete();
+    }
+
+    @Test
+    void bucketId_shouldUseUtcDay() {
+        assertEquals("testId:20260102", PriceHistoryStore.bucketId("testId", Instant.parse("2026-01-02T23:59:59Z")));
+    }
+
+    @Test
+    void blockId_shouldSortBetweenDayBucketAndNextDay() {
+        String block = PriceHistoryStore.blockId("testId:20260102", 12);
+
+        assertEquals("testId:20260102:0000000012", block);
+        assertTrue(block.compareTo(PriceHistoryStore.blockId("testId:20260102", 2)) > 0);
+        assertTrue(block.compareTo("testId:20260103") < 0);
+        assertTrue(block.compareTo("testId:20260102:~") < 0);
+    }
+}
@@ -0,0 +1,60 @@
+package com.afrisol.ProductService.outbox;
+
+import com.afrisol.ProductService.dto.ProductResponseDto;
+import com.afrisol.ProductService.model.OutboxEvent;
+import com.afrisol.ProductService.model.ProductEventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileEventPublisherTest {
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @Test
+    void publish_shouldAppendOneLinePerEventAcrossRestarts() throws Exception {
+        Path file = tempDir.resolve("events/product-events.jsonl");
+        OutboxEvent added = event("1", ProductEventType.PRODUCT_ADDED);
+        OutboxEvent deleted = event("2", ProductEventType.PRODUCT_DELETED);
+
+        try (FileEventPublisher publisher = new FileEventPublisher(file, objectMapper)) {
+            StepVerifier.create(publisher.publish(List.of(added))).verifyComplete();
+        }
+        try (FileEventPublisher publisher = new FileEventPublisher(file, objectMapper)) {
+            StepVerifier.create(publisher.publish(List.of(deleted))).verifyComplete();
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertEquals(added, objectMapper.readValue(lines.get(0), OutboxEvent.class));
+        assertEquals(deleted, objectMapper.readValue(lines.get(1), OutboxEvent.class));
+    }
+
+    private OutboxEvent event(String eventId, ProductEventType type) {
+        return OutboxEvent.builder()
+                .eventId(eventId)
+                .tenantId("default")
+                .productId("testId")
+                .type(type)
+                .product(type == ProductEventType.PRODUCT_DELETED ? null : ProductResponseDto.builder()
+                        .id("testId")
+                        .name("Test Product")
+                        .price(100.0)
+                        .quantity(10)
+                        .build())
+                .requestId("requestId")
+                .createdAt(Instant.parse("2026-01-02T10:00:00Z"))
+                .build();
+    }
+}
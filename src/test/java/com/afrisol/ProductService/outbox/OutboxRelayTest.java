@@ -0,0 +1,159 @@
+package com.afrisol.ProductService.outbox;
+
+import com.afrisol.ProductService.model.OutboxEvent;
+import com.afrisol.ProductService.model.ProductEventType;
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryEventPublisher eventPublisher = new InMemoryEventPublisher();
+
+    @Test
+    void drain_whenLeaseHeld_shouldPublishBatchesInOrderAndRemoveThem() {
+        OutboxEvent first = event("1", ProductEventType.PRODUCT_ADDED);
+        OutboxEvent second = event("2", ProductEventType.PRODUCT_UPDATED);
+        OutboxEvent third = event("3", ProductEventType.PRODUCT_DELETED);
+        holdLease();
+        when(mongoTemplate.find(Mockito.any(Query.class), Mockito.eq(OutboxEvent.class)))
+                .thenReturn(Flux.just(first, second), Flux.just(third));
+        when(mongoTemplate.remove(Mockito.any(Query.class), Mockito.eq(OutboxEvent.class)))
+                .thenReturn(Mono.just(DeleteResult.acknowledged(2)), Mono.just(DeleteResult.acknowledged(1)));
+
+        StepVerifier.create(newRelay().drain())
+                .expectNext(3L)
+                .verifyComplete();
+
+        assertEquals(List.of(first, second, third), eventPublisher.events());
+        verify(mongoTemplate, Mockito.times(2)).remove(Mockito.any(Query.class), Mockito.eq(OutboxEvent.class));
+        assertEquals(3, meterRegistry.get("product.outbox.published").counter().count());
+        assertEquals(3, meterRegistry.get("product.outbox.relay.lag").timer().count());
+    }
+
+    @Test
+    void drain_whenPublishFails_shouldKeepEventsInOutbox() {
+        holdLease();
+        when(mongoTemplate.find(Mockito.any(Query.class), Mockito.eq(OutboxEvent.class)))
+                .thenReturn(Flux.just(event("1", ProductEventType.PRODUCT_ADDED)));
+        OutboxRelay relay = new OutboxRelay(mongoTemplate, events -> Mono.error(new IllegalStateException("Broker down")),
+                meterRegistry, "memory", 2, Duration.ofSeconds(30));
+
+        StepVerifier.create(relay.drain())
+                .expectErrorMessage("Broker down")
+                .verify();
+
+        verify(mongoTemplate, Mockito.never()).remove(Mockito.any(Query.class), Mockito.eq(OutboxEvent.class));
+        assertEquals(1, meterRegistry.get("product.outbox.failures").counter().count());
+        assertEquals(1, meterRegistry.get("product.outbox.oldest.age").gauge().value(), 0.5);
+    }
+
+    @Test
+    void drain_whenLeaseHeldByAnotherReplica_shouldNotPublish() {
+        when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(Document.class), Mockito.anyString()))
+                .thenReturn(Mono.error(new DuplicateKeyException("Lease taken")));
+
+        StepVerifier.create(newRelay().drain())
+                .expectNext(0L)
+                .verifyComplete();
+
+        verify(mongoTemplate, Mockito.never()).find(Mockito.any(Query.class), Mockito.eq(OutboxEvent.class));
+        assertEquals(0, eventPublisher.deliveries());
+    }
+
+    @Test
+    void relay_whenNoPublisherConfigured_shouldLeaveOutboxAlone() {
+        OutboxRelay relay = new OutboxRelay(mongoTemplate, eventPublisher, meterRegistry, "", 2, Duration.ofSeconds(30));
+
+        relay.relay();
+
+        Mockito.verifyNoInteractions(mongoTemplate);
+        assertEquals(0, eventPublisher.deliveries());
+    }
+
+    @Test
+    void drain_whenProductEventsStampedOutOfOrder_shouldPublishThemInSequenceOrder() {
+        // Written by two replicas whose clocks disagree, the product's later change got the earlier timestamp
+        OutboxEvent laterChange = event("1", ProductEventType.PRODUCT_UPDATED, "testId", 3);
+        OutboxEvent otherProduct = event("2", ProductEventType.PRODUCT_ADDED, "otherId", 1);
+        OutboxEvent earlierChange = event("3", ProductEventType.PRODUCT_UPDATED, "testId", 2);
+        holdLease();
+        when(mongoTemplate.find(Mockito.any(Query.class), Mockito.eq(OutboxEvent.class)))
+                .thenReturn(Flux.just(laterChange, otherProduct, earlierChange));
+        when(mongoTemplate.remove(Mockito.any(Query.class), Mockito.eq(OutboxEvent.class)))
+                .thenReturn(Mono.just(DeleteResult.acknowledged(3)));
+        OutboxRelay relay = new OutboxRelay(mongoTemplate, eventPublisher, meterRegistry, "memory", 5, Duration.ofSeconds(30));
+
+        StepVerifier.create(relay.drain())
+                .expectNext(3L)
+                .verifyComplete();
+
+        assertEquals(List.of(earlierChange, otherProduct, laterChange), eventPublisher.events());
+    }
+
+    @Test
+    void unpublishedBacklog_whenNoPublisherConfigured_shouldReportOldestEvent() {
+        OutboxEvent oldest = event("1", ProductEventType.PRODUCT_ADDED);
+        oldest.setCreatedAt(Instant.now().minus(Duration.ofHours(1)));
+        when(mongoTemplate.findOne(Mockito.any(Query.class), Mockito.eq(OutboxEvent.class))).thenReturn(Mono.just(oldest));
+        when(mongoTemplate.estimatedCount(OutboxEvent.class)).thenReturn(Mono.just(42L));
+        OutboxRelay relay = new OutboxRelay(mongoTemplate, eventPublisher, meterRegistry, "", 2, Duration.ofSeconds(30));
+
+        StepVerifier.create(relay.unpublishedBacklog())
+                .expectNext(42L)
+                .verifyComplete();
+
+        assertEquals(3600, meterRegistry.get("product.outbox.oldest.age").gauge().value(), 5);
+    }
+
+    private OutboxRelay newRelay() {
+        return new OutboxRelay(mongoTemplate, eventPublisher, meterRegistry, "memory", 2, Duration.ofSeconds(30));
+    }
+
+    private void holdLease() {
+        when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(Document.class), Mockito.anyString()))
+                .thenReturn(Mono.just(new Document("_id", "relay")));
+    }
+
+    private OutboxEvent event(String eventId, ProductEventType type) {
+        return event(eventId, type, "testId", Long.parseLong(eventId));
+    }
+
+    private OutboxEvent event(String eventId, ProductEventType type, String productId, long sequence) {
+        return OutboxEvent.builder()
+                .eventId(eventId)
+                .tenantId("default")
+                .productId(productId)
+                .sequence(sequence)
+                .type(type)
+                .createdAt(Instant.now().minusSeconds(1))
+                .build();
+    }
+}
@@ -0,0 +1,250 @@
+package com.afrisol.ProductService.service;
+
+import com.afrisol.ProductService.cache.LocalProductCache;
+import com.afrisol.ProductService.history.PriceHistoryStore;
+import com.afrisol.ProductService.model.CatalogueJob;
+import com.afrisol.ProductService.model.JobStatus;
+import com.afrisol.ProductService.model.JobType;
+import com.afrisol.ProductService.model.OutboxEvent;
+import com.afrisol.ProductService.model.Product;
+import com.afrisol.ProductService.model.ProductEventType;
+import com.afrisol.ProductService.model.ProductName;
+import com.afrisol.ProductService.repository.CatalogueJobRepository;
+import com.afrisol.ProductService.repository.OutboxEventRepository;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogueJobExecutorTest {
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private CatalogueJobRepository jobRepository;
+    @Mock
+    private PriceHistoryStore priceHistoryStore;
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private final List<OutboxEvent> savedEvents = new CopyOnWriteArrayList<>();
+    private CatalogueJobExecutor executor;
+    private CatalogueJob job;
+
+    @BeforeEach
+    void setUp() {
+        executor = new CatalogueJobExecutor(mongoTemplate, jobRepository, new LocalProductCache(100, Duration.ofMinutes(1)),
+                priceHistoryStore, outboxEventRepository, transactionalOperator, 2, 2, Duration.ofMinutes(2));
+        // Transactions are Mongo's concern, here they just run the write
+        Mockito.lenient().when(transactionalOperator.transactional(Mockito.<Mono<Object>>any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.lenient().when(outboxEventRepository.saveAll(Mockito.<Publisher<OutboxEvent>>any()))
+                .thenAnswer(invocation -> Flux.from(invocation.<Publisher<OutboxEvent>>getArgument(0)).doOnNext(savedEvents::add));
+        Mockito.lenient().when(priceHistoryStore.appendAll(Mockito.anyList(), Mockito.any(Instant.class))).thenReturn(Mono.empty());
+        job = CatalogueJob.builder()
+                .jobId("jobId")
+                .tenantId("default")
+                .type(JobType.REPRICE)
+                .status(JobStatus.PENDING)
+                .productType("Electronics")
+                .percentage(10.0)
+                .build();
+    }
+
+    @Test
+    void run_shouldApplyChunksCheckpointAndComplete() {
+        when(mongoTemplate.count(Mockito.any(Query.class), Mockito.eq(Product.class))).thenReturn(Mono.just(3L));
+        when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(CatalogueJob.class)))
+                .thenReturn(Mono.just(withStatus(JobStatus.RUNNING)), Mono.just(withStatus(JobStatus.RUNNING)),
+                        Mono.just(withStatus(JobStatus.RUNNING)), Mono.just(withStatus(JobStatus.COMPLETED)));
+        when(mongoTemplate.find(Mockito.any(Query.class), Mockito.eq(Product.class))).thenReturn(products("a", "b", "c"));
+        when(mongoTemplate.exists(Mockito.any(Query.class), Mockito.eq(CatalogueJob.class))).thenReturn(Mono.just(true));
+        when(mongoTemplate.updateMulti(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class), Mockito.eq(Product.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(2, 2L, null)));
+
+        StepVerifier.create(executor.run(job))
+                .expectNextMatches(finished -> finished.getStatus() == JobStatus.COMPLETED)
+                .verifyComplete();
+
+        ArgumentCaptor<Query> chunks = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, Mockito.times(2)).updateMulti(chunks.capture(), Mockito.any(UpdateDefinition.class), Mockito.eq(Product.class));
+        // Products already repriced by this job are skipped when a chunk is applied again
+        assertTrue(chunks.getAllValues().stream()
+                .allMatch(chunk -> chunk.getQueryObject().toJson().contains("\"lastJobId\": {\"$ne\": \"jobId\"}")));
+        // Every product read back after a reprice gets a history point and an event
+        ArgumentCaptor<List<Product>> points = ArgumentCaptor.forClass(List.class);
+        verify(priceHistoryStore, Mockito.times(2)).appendAll(points.capture(), Mockito.any(Instant.class));
+        assertTrue(points.getAllValues().stream().mapToInt(List::size).sum() >= 3);
+        assertTrue(savedEvents.size() >= 3);
+        assertTrue(savedEvents.stream().allMatch(event -> event.getType() == ProductEventType.PRODUCT_UPDATED
+                && event.getProduct() != null && event.getRequestId().equals("jobId")));
+    }
+
+    @Test
+    void run_whenDeleteJob_shouldRecordDeleteEventPerProduct() {
+        job.setType(JobType.DELETE);
+        when(mongoTemplate.count(Mockito.any(Query.class), Mockito.eq(Product.class))).thenReturn(Mono.just(2L));
+        when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(CatalogueJob.class)))
+                .thenReturn(Mono.just(withStatus(JobStatus.RUNNING)), Mono.just(withStatus(JobStatus.RUNNING)),
+                        Mono.just(withStatus(JobStatus.COMPLETED)));
+        when(mongoTemplate.find(Mockito.any(Query.class), Mockito.eq(Product.class))).thenReturn(products("a", "b"));
+        when(mongoTemplate.exists(Mockito.any(Query.class), Mockito.eq(CatalogueJob.class))).thenReturn(Mono.just(true));
+        when(mongoTemplate.updateMulti(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class), Mockito.eq(Product.class)))
+                .thenReturn(Mono.just(UpdateResult.acknowledged(2, 2L, null)));
+        when(mongoTemplate.remove(Mockito.any(Query.class), Mockito.eq(ProductName.class))).thenReturn(Mono.just(DeleteResult.acknowledged(2)));
+
+        StepVerifier.create(executor.run(job))
+                .expectNextMatches(finished -> finished.getStatus() == JobStatus.COMPLETED)
+                .verifyComplete();
+
+        verify(transactionalOperator).transactional(Mockito.<Mono<Object>>any());
+        ArgumentCaptor<Query> released = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(released.capture(), Mockito.eq(ProductName.class));
+        assertEquals(List.of("a", "b"), released.getValue().getQueryObject().get("_id", Document.class).get("$in"));
+        assertEquals(List.of("a", "b"), savedEvents.stream().map(OutboxEvent::getProductId).toList());
+        // The delete is the change after the one each product was read at
+        assertTrue(savedEvents.stream().allMatch(event -> event.getType() == ProductEventType.PRODUCT_DELETED
+                && event.getTenantId().equals("default") && event.getProduct() == null && event.getSequence() == 1));
+        verify(priceHistoryStore, Mockito.never()).appendAll(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void run_whenChunkConflictsWithProductUpdate_shouldRetryChunk() {
+        job.setType(JobType.DELETE);
+        when(mongoTemplate.count(Mockito.any(Query.class), Mockito.eq(Product.class))).thenReturn(Mono.just(2L));
+        when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(CatalogueJob.class)))
+                .thenReturn(Mono.just(withStatus(JobStatus.RUNNING)), Mono.just(withStatus(JobStatus.RUNNING)),
+                        Mono.just(withStatus(JobStatus.COMPLETED)));
+        when(mongoTemplate.find(Mockito.any(Query.class), Mockito.eq(Product.class))).thenReturn(products("a", "b"));
+        when(mongoTemplate.exists(Mockito.any(Query.class), Mockito.eq(CatalogueJob.class))).thenReturn(Mono.just(true));
+        // A product of the chunk is updated through the API while the chunk's transaction runs
+        when(mongoTemplate.updateMulti(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class), Mockito.eq(Product.class)))
+                .thenReturn(Mono.error(ProductServiceTest.writeConflict()), Mono.just(UpdateResult.acknowledged(2, 2L, null)));
+
+        StepVerifier.create(executor.run(job))
+                .expectNextMatches(finished -> finished.getStatus() == JobStatus.COMPLETED)
+                .verifyComplete();
+
+        verify(mongoTemplate, Mockito.times(2)).updateMulti(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class), Mockito.eq(Product.class));
+        assertEquals(List.of("a", "b"), savedEvents.stream().map(OutboxEvent::getProductId).toList());
+    }
+
+    @Test
+    void run_whenLeaseHeldByAnotherReplica_shouldNotTouchProducts() {
+        job.setStatus(JobStatus.RUNNING);
+        when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(CatalogueJob.class)))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(executor.run(job)).verifyComplete();
+
+        verify(mongoTemplate, Mockito.never()).find(Mockito.any(Query.class), Mockito.eq(Product.class));
+        verify(mongoTemplate, Mockito.never()).updateMulti(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class), Mockito.eq(Product.class));
+    }
+
+    @Test
+    void run_whenCancelled_shouldSkipRemainingChunks() {
+        when(mongoTemplate.count(Mockito.any(Query.class), Mockito.eq(Product.class))).thenReturn(Mono.just(3L));
+        when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(CatalogueJob.class)))
+                .thenReturn(Mono.just(withStatus(JobStatus.RUNNING)), Mono.empty());
+        when(mongoTemplate.find(Mockito.any(Query.class), Mockito.eq(Product.class))).thenReturn(products("a", "b", "c"));
+        when(mongoTemplate.exists(Mockito.any(Query.class), Mockito.eq(CatalogueJob.class))).thenReturn(Mono.just(false));
+        when(jobRepository.findById("jobId")).thenReturn(Mono.just(withStatus(JobStatus.CANCELLED)));
+
+        StepVerifier.create(executor.run(job))
+                .expectNextMatches(finished -> finished.getStatus() == JobStatus.CANCELLED)
+                .verifyComplete();
+
+        verify(mongoTemplate, Mockito.never()).updateMulti(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class), Mockito.eq(Product.class));
+    }
+
+    @Test
+    void run_whenWriteFails_shouldMarkJobFailed() {
+        CatalogueJob failed = withStatus(JobStatus.FAILED);
+        failed.setError("Database error");
+        when(mongoTemplate.count(Mockito.any(Query.class), Mockito.eq(Product.class))).thenReturn(Mono.just(1L));
+        when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(CatalogueJob.class)))
+                .thenReturn(Mono.just(withStatus(JobStatus.RUNNING)), Mono.just(failed));
+        when(mongoTemplate.find(Mockito.any(Query.class), Mockito.eq(Product.class))).thenReturn(products("a"));
+        when(mongoTemplate.exists(Mockito.any(Query.class), Mockito.eq(CatalogueJob.class))).thenReturn(Mono.just(true));
+        when(mongoTemplate.updateMulti(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class), Mockito.eq(Product.class)))
+                .thenReturn(Mono.error(new RuntimeException("Database error")));
+
+        StepVerifier.create(executor.run(job))
+                .expectNextMatches(finished -> finished.getStatus() == JobStatus.FAILED)
+                .verifyComplete();
+
+        ArgumentCaptor<UpdateDefinition> updates = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate, Mockito.times(2)).findAndModify(Mockito.any(Query.class), updates.capture(),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(CatalogueJob.class));
+        assertEquals("Database error", updates.getValue().getUpdateObject().get("$set", Document.class).get("error"));
+    }
+
+    @Test
+    void resumeInterruptedJobs_shouldOnlyClaimJobsWithExpiredLease() {
+        CatalogueJob live = withStatus(JobStatus.RUNNING);
+        live.setJobId("liveJob");
+        live.setLeaseExpiresAt(Instant.now().plusSeconds(60));
+        CatalogueJob abandoned = withStatus(JobStatus.RUNNING);
+        abandoned.setJobId("abandonedJob");
+        abandoned.setLeaseExpiresAt(Instant.now().minusSeconds(60));
+        when(jobRepository.findByStatusIn(List.of(JobStatus.PENDING, JobStatus.RUNNING))).thenReturn(Flux.just(live, abandoned));
+        when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(CatalogueJob.class)))
+                .thenReturn(Mono.empty());
+
+        executor.resumeInterruptedJobs();
+
+        ArgumentCaptor<Query> claims = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, Mockito.timeout(1000)).findAndModify(claims.capture(), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(CatalogueJob.class));
+        assertEquals("abandonedJob", claims.getValue().getQueryObject().get("_id"));
+    }
+
+    private CatalogueJob withStatus(JobStatus status) {
+        return CatalogueJob.builder()
+                .jobId(job.getJobId())
+                .tenantId(job.getTenantId())
+                .type(job.getType())
+                .status(status)
+                .productType(job.getProductType())
+                .percentage(job.getPercentage())
+                .build();
+    }
+
+    private Flux<Product> products(String... productIds) {
+        return Flux.fromArray(productIds).map(productId -> Product.builder().productId(productId).build());
+    }
+}
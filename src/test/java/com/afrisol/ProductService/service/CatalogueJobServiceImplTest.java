@@ -0,0 +1,120 @@
+package com.afrisol.ProductService.service;
+
+import com.afrisol.ProductService.dto.JobRequestDto;
+import com.afrisol.ProductService.exception.CustomException;
+import com.afrisol.ProductService.model.CatalogueJob;
+import com.afrisol.ProductService.model.JobStatus;
+import com.afrisol.ProductService.model.JobType;
+import com.afrisol.ProductService.repository.CatalogueJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogueJobServiceImplTest {
+    @Mock
+    private CatalogueJobRepository jobRepository;
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private CatalogueJobExecutor jobExecutor;
+
+    private CatalogueJobServiceImpl jobService;
+    private JobRequestDto jobDto;
+    private CatalogueJob job;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new CatalogueJobServiceImpl(jobRepository, mongoTemplate, jobExecutor);
+        jobDto = JobRequestDto.builder()
+                .type(JobType.REPRICE)
+                .productType("Electronics")
+                .percentage(5.0)
+                .build();
+        job = CatalogueJob.builder()
+                .jobId("jobId")
+                .tenantId("acme")
+                .type(JobType.REPRICE)
+                .status(JobStatus.PENDING)
+                .productType("Electronics")
+                .percentage(5.0)
+                .build();
+    }
+
+    @Test
+    void submitJob_shouldSavePendingJobAndStartIt() {
+        when(jobRepository.save(Mockito.any(CatalogueJob.class))).thenReturn(Mono.just(job));
+
+        StepVerifier.create(jobService.submitJob(jobDto, "acme", "requestId"))
+                .expectNextMatches(response -> response.getId().equals("jobId") && response.getStatus() == JobStatus.PENDING)
+                .verifyComplete();
+
+        verify(jobRepository).save(Mockito.argThat(saved -> saved.getStatus() == JobStatus.PENDING
+                && saved.getTenantId().equals("acme")));
+        verify(jobExecutor).start(job);
+    }
+
+    @Test
+    void submitJob_whenRepriceWithoutPercentage_shouldFail() {
+        jobDto.setPercentage(null);
+
+        StepVerifier.create(jobService.submitJob(jobDto, "acme", "requestId"))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(jobExecutor, Mockito.never()).start(Mockito.any());
+    }
+
+    @Test
+    void cancelJob_whenRunning_shouldStopLocalExecution() {
+        job.setStatus(JobStatus.CANCELLED);
+        when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(CatalogueJob.class)))
+                .thenReturn(Mono.just(job));
+
+        StepVerifier.create(jobService.cancelJob("jobId", "acme", "requestId"))
+                .expectNextMatches(response -> response.getStatus() == JobStatus.CANCELLED)
+                .verifyComplete();
+
+        verify(jobExecutor).cancel("jobId");
+    }
+
+    @Test
+    void cancelJob_whenFinished_shouldReturnConflict() {
+        job.setStatus(JobStatus.COMPLETED);
+        when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(CatalogueJob.class)))
+                .thenReturn(Mono.empty());
+        when(jobRepository.findByJobIdAndTenantId("jobId", "acme")).thenReturn(Mono.just(job));
+
+        StepVerifier.create(jobService.cancelJob("jobId", "acme", "requestId"))
+                .expectErrorMatches(throwable -> throwable instanceof CustomException
+                        && ((CustomException) throwable).getStatus() == HttpStatus.CONFLICT)
+                .verify();
+
+        verify(jobExecutor, Mockito.never()).cancel(Mockito.any());
+    }
+
+    @Test
+    void getJob_whenOwnedByAnotherTenant_shouldReturnNotFound() {
+        when(jobRepository.findByJobIdAndTenantId("jobId", "globex")).thenReturn(Mono.empty());
+
+        StepVerifier.create(jobService.getJob("jobId", "globex", "requestId"))
+                .expectErrorMatches(throwable -> throwable instanceof CustomException
+                        && ((CustomException) throwable).getStatus() == HttpStatus.NOT_FOUND)
+                .verify();
+    }
+}
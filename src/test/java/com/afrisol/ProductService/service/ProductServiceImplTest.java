@@ -1,34 +1,66 @@
 package com.afrisol.ProductService.service;
 
+import com.afrisol.ProductService.cache.LocalProductCache;
+import com.afrisol.ProductService.cache.ProductCache;
+import com.afrisol.ProductService.config.WarmUpMarker;
 import com.afrisol.ProductService.dto.ProductRequestDto;
 import com.afrisol.ProductService.dto.ProductResponseDto;
 import com.afrisol.ProductService.exception.CustomException;
+import com.afrisol.ProductService.exception.ProductAlreadyExistsException;
 import com.afrisol.ProductService.exception.ProductNotFoundException;
+import com.afrisol.ProductService.history.PriceHistoryStore;
+import com.afrisol.ProductService.model.OutboxEvent;
+import com.afrisol.ProductService.model.PriceHistoryBucket;
 import com.afrisol.ProductService.model.Product;
+import com.afrisol.ProductService.model.ProductEventType;
+import com.afrisol.ProductService.model.ProductName;
+import com.afrisol.ProductService.repository.AccessSnapshotRepository;
+import com.afrisol.ProductService.repository.OutboxEventRepository;
+import com.afrisol.ProductService.repository.ProductNameRepository;
 import com.afrisol.ProductService.repository.ProductRepository;
+import com.afrisol.ProductService.tracking.ProductAccessTracker;
+import com.mongodb.MongoException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.lang.reflect.Field;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceTest {
+    private static final String TENANT = "acme";
+
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private ProductNameRepository productNameRepository;
+    @Mock
+    private AccessSnapshotRepository accessSnapshotRepository;
+    @Mock
+    private PriceHistoryStore priceHistoryStore;
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private TransactionalOperator transactionalOperator;
 
-    @InjectMocks
+    private ProductCache productCache;
     private ProductServiceImpl productService;
     private Product product;
     private ProductRequestDto productDto;
@@ -37,7 +69,23 @@ class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
+        productCache = new LocalProductCache(100, Duration.ofMinutes(1));
+        productService = new ProductServiceImpl(productRepository, productNameRepository, productCache,
+                new ProductAccessTracker(1024, 100, accessSnapshotRepository), priceHistoryStore,
+                outboxEventRepository, transactionalOperator);
+        // Transactions are Mongo's concern, here they just run the write
+        Mockito.lenient().when(transactionalOperator.transactional(Mockito.<Mono<Object>>any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.lenient().when(outboxEventRepository.save(Mockito.any(OutboxEvent.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        Mockito.lenient().when(productNameRepository.save(Mockito.any(ProductName.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        Mockito.lenient().when(productNameRepository.deleteById(Mockito.anyString())).thenReturn(Mono.empty());
+        Mockito.lenient().when(priceHistoryStore.append(Mockito.any(Product.class), Mockito.any(Instant.class))).thenReturn(Mono.empty());
+
         product = new Product();
+        product.setProductId("testId");
+        product.setTenantId(TENANT);
         product.setName("Test Product");
         product.setType("Electronics");
         product.setDescription("Test Description");
@@ -65,7 +113,7 @@ class ProductServiceTest {
     @Test
     void addProduct() {
         // Mock existsByName to return false, indicating the product does not already exist
-        Mockito.when(productRepository.existsByName(Mockito.anyString())).thenReturn(Mono.just(false));
+        Mockito.when(productNameRepository.existsByTenantIdAndName(Mockito.eq(TENANT), Mockito.anyString())).thenReturn(Mono.just(false));
 
         // Mock save behavior
         when(productRepository.save(Mockito.any(Product.class))).thenAnswer(invocation -> {
@@ -80,7 +128,7 @@ class ProductServiceTest {
         });
 
         // Verify the response
-        StepVerifier.create(productService.addProduct(productDto, requestID))
+        StepVerifier.create(productService.addProduct(productDto, TENANT, requestID))
                 .expectNextMatches(productResponse -> productResponse.getId().equals("testId")
                         && productResponse.getName().equals("Test Product")
                         && productResponse.getDescription().equals("Test Description")
@@ -90,117 +138,475 @@ class ProductServiceTest {
                 .verifyComplete();
 
         // Verify repository interactions
-        verify(productRepository, Mockito.times(1)).existsByName(productDto.getName());
+        verify(productNameRepository, Mockito.times(1)).existsByTenantIdAndName(TENANT, productDto.getName());
         verify(productRepository, Mockito.times(1)).save(Mockito.any(Product.class));
+        verify(productNameRepository).save(new ProductName("testId", TENANT, "Test Product"));
+        verify(priceHistoryStore).append(Mockito.any(Product.class), Mockito.any(Instant.class));
+        verify(outboxEventRepository).save(Mockito.argThat(event -> event.getType() == ProductEventType.PRODUCT_ADDED
+                && event.getTenantId().equals(TENANT)
+                && event.getProductId().equals("testId")
+                && event.getSequence() == 1
+                && event.getProduct().getName().equals("Test Product")
+                && event.getRequestId().equals(requestID)));
     }
 
 
     @Test
     void addProduct_whenNameExists_shouldThrowError() {
-        when(productRepository.existsByName(product.getName())).thenReturn(Mono.just(true));
+        when(productNameRepository.existsByTenantIdAndName(TENANT, product.getName())).thenReturn(Mono.just(true));
 
-        StepVerifier.create(productService.addProduct(productDto, requestID))
+        StepVerifier.create(productService.addProduct(productDto, TENANT, requestID))
                 .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
                         throwable.getMessage().equals("Product already exists"))
                 .verify();
-        verify(productRepository).existsByName(product.getName());
+        verify(productNameRepository).existsByTenantIdAndName(TENANT, product.getName());
         verify(productRepository, Mockito.never()).save(Mockito.any());
+        verify(outboxEventRepository, Mockito.never()).save(Mockito.any());
     }
 
     @Test
-    void updateProduct_whenProductExists_shouldReturnUpdatedProduct() {
-        when(productRepository.findById(Mockito.anyString())).thenReturn(Mono.just(product));
+    void addProduct_whenEventCannotBeRecorded_shouldFailWithoutSideEffects() {
+        when(productNameRepository.existsByTenantIdAndName(TENANT, productDto.getName())).thenReturn(Mono.just(false));
+        when(productRepository.save(Mockito.any(Product.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(outboxEventRepository.save(Mockito.any(OutboxEvent.class))).thenReturn(Mono.error(new RuntimeException("Transaction aborted")));
+
+        StepVerifier.create(productService.addProduct(productDto, TENANT, requestID))
+                .expectErrorMessage("Transaction aborted")
+                .verify();
+
+        verify(priceHistoryStore, Mockito.never()).append(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void addProduct_whenConcurrentAddTookName_shouldReportProductExists() {
+        when(productNameRepository.existsByTenantIdAndName(TENANT, productDto.getName())).thenReturn(Mono.just(false));
         when(productRepository.save(Mockito.any(Product.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(productNameRepository.save(Mockito.any(ProductName.class))).thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key")));
+
+        StepVerifier.create(productService.addProduct(productDto, TENANT, requestID))
+                .expectError(ProductAlreadyExistsException.class)
+                .verify();
+
+        verify(outboxEventRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void updateProduct_whenNameTakenByAnotherProduct_shouldReportProductExists() {
+        productDto.setName("Other Product");
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(product));
+        when(productRepository.updateLiveById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.anyString(), Mockito.any(),
+                Mockito.anyString(), Mockito.any(), Mockito.anyInt())).thenReturn(Mono.just(1L));
+        when(productNameRepository.save(new ProductName("testId", TENANT, "Other Product")))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key")));
+
+        StepVerifier.create(productService.updateProduct(productDto, "testId", TENANT, requestID))
+                .expectError(ProductAlreadyExistsException.class)
+                .verify();
+
+        verify(priceHistoryStore, Mockito.never()).append(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void updateProduct_whenProductExists_shouldReturnUpdatedProduct() {
+        productCache.fill(product, System.currentTimeMillis()).block();
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(Mockito.eq(TENANT), Mockito.anyString())).thenReturn(Mono.just(product));
+        when(productRepository.updateLiveById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.anyString(), Mockito.any(),
+                Mockito.anyString(), Mockito.any(), Mockito.anyInt())).thenReturn(Mono.just(1L));
 
         productDto.setName("Updated Product");
         productDto.setDescription("Updated Description");
 
-        StepVerifier.create(productService.updateProduct(productDto, "testId", requestID))
+        StepVerifier.create(productService.updateProduct(productDto, "testId", TENANT, requestID))
                 .expectNextMatches(updatedProduct -> updatedProduct.getName().equals("Updated Product"))
                 .verifyComplete();
 
-        verify(productRepository, Mockito.times(1)).findById("testId");
-        verify(productRepository, Mockito.times(1)).save(Mockito.any(Product.class));
+        verify(productRepository, Mockito.times(1)).findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId");
+        verify(productRepository, Mockito.times(1)).updateLiveById(TENANT, "testId", "Updated Product", "Updated Description",
+                product.getType(), product.getPrice(), product.getQuantity());
+        verify(productRepository, Mockito.never()).save(Mockito.any(Product.class));
+        // Renamed, so the new name is reserved in the same transaction
+        verify(productNameRepository).save(new ProductName("testId", TENANT, "Updated Product"));
+        verify(priceHistoryStore, Mockito.never()).append(Mockito.any(), Mockito.any());
+        verify(outboxEventRepository).save(Mockito.argThat(event -> event.getType() == ProductEventType.PRODUCT_UPDATED
+                && event.getSequence() == 1
+                && event.getProduct().getName().equals("Updated Product")));
+        StepVerifier.create(productCache.get("testId")).verifyComplete();
+    }
+
+    @Test
+    void updateProduct_whenPriceChanges_shouldAppendPriceHistory() {
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(Mockito.eq(TENANT), Mockito.anyString())).thenReturn(Mono.just(product));
+        when(productRepository.updateLiveById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.anyString(), Mockito.any(),
+                Mockito.anyString(), Mockito.any(), Mockito.anyInt())).thenReturn(Mono.just(1L));
+
+        productDto.setPrice(120.0);
+
+        StepVerifier.create(productService.updateProduct(productDto, "testId", TENANT, requestID))
+                .expectNextMatches(updatedProduct -> updatedProduct.getPrice().equals(120.0))
+                .verifyComplete();
+
+        // The point joins the update's transaction and picks its bucket by the product's next sequence
+        verify(priceHistoryStore).append(Mockito.argThat(saved -> saved.getPrice().equals(120.0) && saved.getQuantity() == 10
+                && saved.getSequence() == 1), Mockito.any(Instant.class));
+    }
+
+    @Test
+    void updateProduct_whenPriceHistoryCannotBeWritten_shouldFailUpdate() {
+        productCache.fill(product, System.currentTimeMillis()).block();
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(product));
+        when(productRepository.updateLiveById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.anyString(), Mockito.any(),
+                Mockito.anyString(), Mockito.any(), Mockito.anyInt())).thenReturn(Mono.just(1L));
+        when(priceHistoryStore.append(Mockito.any(Product.class), Mockito.any(Instant.class)))
+                .thenReturn(Mono.error(new RuntimeException("Transaction aborted")));
+
+        productDto.setPrice(120.0);
+
+        // The update rolls back with its point, nothing is evicted for a change that did not commit
+        StepVerifier.create(productService.updateProduct(productDto, "testId", TENANT, requestID))
+                .expectErrorMessage("Transaction aborted")
+                .verify();
+
+        StepVerifier.create(productCache.get("testId")).expectNextCount(1).verifyComplete();
+    }
+
+    @Test
+    void updateProduct_whenConcurrentUpdateConflicts_shouldRetryTransaction() {
+        AtomicInteger attempts = new AtomicInteger();
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(product));
+        // The first transaction loses a write conflict with another update of the product
+        when(productRepository.updateLiveById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.anyString(), Mockito.any(),
+                Mockito.anyString(), Mockito.any(), Mockito.anyInt()))
+                .thenReturn(Mono.defer(() -> attempts.getAndIncrement() == 0 ? Mono.error(writeConflict()) : Mono.just(1L)));
+
+        StepVerifier.create(productService.updateProduct(productDto, "testId", TENANT, requestID))
+                .expectNextMatches(updatedProduct -> updatedProduct.getName().equals("Test Product"))
+                .verifyComplete();
+
+        assertEquals(2, attempts.get());
+        verify(outboxEventRepository, Mockito.times(1)).save(Mockito.any(OutboxEvent.class));
+    }
+
+    @Test
+    void updateProduct_whenConflictsPersist_shouldReportConflict() {
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(product));
+        when(productRepository.updateLiveById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.anyString(), Mockito.any(),
+                Mockito.anyString(), Mockito.any(), Mockito.anyInt())).thenReturn(Mono.error(writeConflict()));
+
+        StepVerifier.create(productService.updateProduct(productDto, "testId", TENANT, requestID))
+                .expectError(UncategorizedMongoDbException.class)
+                .verify();
+
+        verify(outboxEventRepository, Mockito.never()).save(Mockito.any(OutboxEvent.class));
     }
 
     @Test
     void updateProduct_whenProductNotFound_shouldThrowProductNotFoundException() {
-        when(productRepository.findById(Mockito.anyString())).thenReturn(Mono.empty());
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(Mockito.eq(TENANT), Mockito.anyString())).thenReturn(Mono.empty());
 
-        StepVerifier.create(productService.updateProduct(productDto, "nonExistentId", requestID))
+        StepVerifier.create(productService.updateProduct(productDto, "nonExistentId", TENANT, requestID))
                 .expectErrorMatches(throwable -> throwable instanceof ProductNotFoundException &&
                         throwable.getMessage().equals("Product not found with ID: nonExistentId"))
                 .verify();
 
-        verify(productRepository, Mockito.times(1)).findById("nonExistentId");
+        verify(productRepository, Mockito.times(1)).findByTenantIdAndProductIdAndDeletedFalse(TENANT, "nonExistentId");
+    }
+
+    @Test
+    void updateProduct_whenDeletedConcurrently_shouldNotResurrectProduct() {
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(Mockito.eq(TENANT), Mockito.anyString())).thenReturn(Mono.just(product));
+        when(productRepository.updateLiveById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.anyString(), Mockito.any(),
+                Mockito.anyString(), Mockito.any(), Mockito.anyInt())).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(productService.updateProduct(productDto, "testId", TENANT, requestID))
+                .expectError(ProductNotFoundException.class)
+                .verify();
+
+        verify(productRepository, Mockito.never()).save(Mockito.any(Product.class));
+        verify(outboxEventRepository, Mockito.never()).save(Mockito.any(OutboxEvent.class));
+        StepVerifier.create(productCache.get("testId")).verifyComplete();
     }
 
     @Test
     void updateProduct_whenDatabaseErrorOccurs_shouldThrowRuntimeException() {
-        when(productRepository.findById(Mockito.anyString())).thenReturn(Mono.just(product));
-        when(productRepository.save(Mockito.any(Product.class))).thenReturn(Mono.error(new RuntimeException("Database error")));
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(Mockito.eq(TENANT), Mockito.anyString())).thenReturn(Mono.just(product));
+        when(productRepository.updateLiveById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.anyString(), Mockito.any(),
+                Mockito.anyString(), Mockito.any(), Mockito.anyInt())).thenReturn(Mono.error(new RuntimeException("Database error")));
 
-        StepVerifier.create(productService.updateProduct(productDto, "testId", requestID))
+        StepVerifier.create(productService.updateProduct(productDto, "testId", TENANT, requestID))
                 .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
                         throwable.getMessage().equals("Database error"))
                 .verify();
 
-        verify(productRepository, Mockito.times(1)).findById("testId");
+        verify(productRepository, Mockito.times(1)).findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId");
     }
 
     @Test
-    void deleteProduct_whenProductExists_shouldReturnVoid() {
-        when(productRepository.findById(Mockito.anyString())).thenReturn(Mono.just(product));
-        when(productRepository.delete(Mockito.any(Product.class))).thenReturn(Mono.empty());
+    void deleteProduct_whenProductExists_shouldWriteTombstone() {
+        productCache.fill(product, System.currentTimeMillis()).block();
+        product.setSequence(4);
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(product));
+        when(productRepository.tombstoneById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.any(Instant.class))).thenReturn(Mono.just(1L));
 
-        StepVerifier.create(productService.deleteProduct("testId", requestID))
+        StepVerifier.create(productService.deleteProduct("testId", TENANT, requestID))
                 .verifyComplete();
 
-        verify(productRepository, Mockito.times(1)).findById("testId");
-        verify(productRepository, Mockito.times(1)).delete(Mockito.any(Product.class));
+        verify(productRepository, Mockito.times(1)).tombstoneById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.any(Instant.class));
+        verify(productRepository, Mockito.never()).delete(Mockito.any(Product.class));
+        verify(productNameRepository).deleteById("testId");
+        verify(outboxEventRepository).save(Mockito.argThat(event -> event.getType() == ProductEventType.PRODUCT_DELETED
+                && event.getProductId().equals("testId")
+                && event.getSequence() == 5
+                && event.getProduct() == null));
+        StepVerifier.create(productCache.get("testId")).verifyComplete();
     }
 
     @Test
     void deleteProduct_whenProductNotFound_shouldThrowProductNotFoundException() {
-        when(productRepository.findById(Mockito.anyString())).thenReturn(Mono.empty());
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "nonExistentId")).thenReturn(Mono.empty());
 
-        StepVerifier.create(productService.deleteProduct("nonExistentId", requestID))
+        StepVerifier.create(productService.deleteProduct("nonExistentId", TENANT, requestID))
                 .expectErrorMatches(throwable -> throwable instanceof ProductNotFoundException &&
                         throwable.getMessage().equals("Product not found with ID: nonExistentId"))
                 .verify();
 
-        verify(productRepository, Mockito.times(1)).findById("nonExistentId");
+        verify(productRepository, Mockito.never()).tombstoneById(Mockito.anyString(), Mockito.anyString(), Mockito.any(Instant.class));
+        verify(outboxEventRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void deleteProduct_whenDeletedConcurrently_shouldThrowProductNotFoundException() {
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(product));
+        when(productRepository.tombstoneById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.any(Instant.class))).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(productService.deleteProduct("testId", TENANT, requestID))
+                .expectError(ProductNotFoundException.class)
+                .verify();
+
+        verify(outboxEventRepository, Mockito.never()).save(Mockito.any());
     }
 
     @Test
     void deleteProduct_whenDatabaseErrorOccurs_shouldThrowRuntimeException() {
-        when(productRepository.findById(Mockito.anyString())).thenReturn(Mono.just(product));
-        when(productRepository.delete(Mockito.any(Product.class))).thenReturn(Mono.error(new RuntimeException("Database error")));
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(product));
+        when(productRepository.tombstoneById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.any(Instant.class)))
+                .thenReturn(Mono.error(new RuntimeException("Database error")));
 
-        StepVerifier.create(productService.deleteProduct("testId", requestID))
+        StepVerifier.create(productService.deleteProduct("testId", TENANT, requestID))
                 .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
                         throwable.getMessage().equals("Database error"))
                 .verify();
 
-        verify(productRepository, Mockito.times(1)).findById("testId");
-        verify(productRepository, Mockito.times(1)).delete(Mockito.any(Product.class));
+        verify(productRepository, Mockito.times(1)).tombstoneById(Mockito.eq(TENANT), Mockito.eq("testId"), Mockito.any(Instant.class));
+    }
+
+    @Test
+    void restoreProduct_whenProductDeleted_shouldReturnRestoredProduct() {
+        product.setDeleted(true);
+        Product restored = Product.builder()
+                .productId("testId")
+                .tenantId(TENANT)
+                .name("Test Product")
+                .type("Electronics")
+                .price(100.0)
+                .quantity(10)
+                .build();
+        when(productRepository.findByTenantIdAndProductId(TENANT, "testId")).thenReturn(Mono.just(product));
+        when(productNameRepository.existsByTenantIdAndName(TENANT, "Test Product")).thenReturn(Mono.just(false));
+        when(productRepository.restoreById(TENANT, "testId")).thenReturn(Mono.just(1L));
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(restored));
+
+        StepVerifier.create(productService.restoreProduct("testId", TENANT, requestID))
+                .expectNextMatches(response -> response.getId().equals("testId"))
+                .verifyComplete();
+
+        verify(productRepository).restoreById(TENANT, "testId");
+        verify(productNameRepository).save(new ProductName("testId", TENANT, "Test Product"));
+        verify(outboxEventRepository).save(Mockito.argThat(event -> event.getType() == ProductEventType.PRODUCT_RESTORED));
+    }
+
+    @Test
+    void restoreProduct_whenNameTakenByLiveProduct_shouldThrowProductAlreadyExistsException() {
+        product.setDeleted(true);
+        when(productRepository.findByTenantIdAndProductId(TENANT, "testId")).thenReturn(Mono.just(product));
+        when(productNameRepository.existsByTenantIdAndName(TENANT, "Test Product")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(productService.restoreProduct("testId", TENANT, requestID))
+                .expectError(ProductAlreadyExistsException.class)
+                .verify();
+
+        verify(productRepository, Mockito.never()).restoreById(Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    void restoreProduct_whenProductNotDeleted_shouldThrowProductNotFoundException() {
+        when(productRepository.findByTenantIdAndProductId(TENANT, "testId")).thenReturn(Mono.just(product));
+
+        StepVerifier.create(productService.restoreProduct("testId", TENANT, requestID))
+                .expectError(ProductNotFoundException.class)
+                .verify();
+
+        verify(productRepository, Mockito.never()).restoreById(Mockito.anyString(), Mockito.anyString());
     }
 
     @Test
     void getProduct_whenNonexistentId_shouldThrowProductNotFoundException() {
-        when(productRepository.findById("nonExistentId")).thenReturn(Mono.empty());
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "nonExistentId")).thenReturn(Mono.empty());
 
-        StepVerifier.create(productService.getProduct("nonExistentId", requestID))
+        StepVerifier.create(productService.getProduct("nonExistentId", TENANT, requestID))
                 .expectErrorMatches(throwable -> throwable instanceof ProductNotFoundException &&
                         throwable.getMessage().equals("Product not found"))
                 .verify();
 
-        verify(productRepository).findById("nonExistentId");
+        verify(productRepository).findByTenantIdAndProductIdAndDeletedFalse(TENANT, "nonExistentId");
+    }
+
+    @Test
+    void getProduct_whenNonexistentId_shouldReuseStacklessException() {
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "nonExistentId")).thenReturn(Mono.empty());
+
+        // Every 404 gets the same instance, no exception and no stack trace is built per miss
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(productService.getProduct("nonExistentId", TENANT, requestID))
+                    .expectErrorMatches(throwable -> throwable == ProductNotFoundException.INSTANCE &&
+                            throwable.getStackTrace().length == 0)
+                    .verify();
+        }
+        // Suppression is disabled, a caller cannot attach state to the shared instance
+        ProductNotFoundException.INSTANCE.addSuppressed(new RuntimeException("Attached by a caller"));
+        assertEquals(0, ProductNotFoundException.INSTANCE.getSuppressed().length);
+    }
+
+    @Test
+    void getProduct_whenCached_shouldNotQueryRepository() {
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(product));
+
+        StepVerifier.create(productService.getProduct("testId", TENANT, requestID))
+                .expectNextMatches(response -> response.getId().equals("testId"))
+                .verifyComplete();
+        StepVerifier.create(productService.getProduct("testId", TENANT, requestID))
+                .expectNextMatches(response -> response.getName().equals("Test Product"))
+                .verifyComplete();
+
+        verify(productRepository, Mockito.times(1)).findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId");
+    }
+
+    @Test
+    void getProduct_whenUpdatedDuringRead_shouldNotCacheStaleProduct() {
+        // The update lands while the read is in flight, the read still returns the old product
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId"))
+                .thenReturn(Mono.defer(() -> productCache.evict("testId").thenReturn(product)));
+
+        StepVerifier.create(productService.getProduct("testId", TENANT, requestID))
+                .expectNextMatches(response -> response.getName().equals("Test Product"))
+                .verifyComplete();
+
+        StepVerifier.create(productCache.get("testId")).verifyComplete();
+    }
+
+    @Test
+    void getProduct_whenCachedForAnotherTenant_shouldQueryRepositoryForOwnTenant() {
+        productCache.fill(product, System.currentTimeMillis()).block();
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse("globex", "testId")).thenReturn(Mono.empty());
+
+        StepVerifier.create(productService.getProduct("testId", "globex", requestID))
+                .expectError(ProductNotFoundException.class)
+                .verify();
+
+        verify(productRepository).findByTenantIdAndProductIdAndDeletedFalse("globex", "testId");
+    }
+
+    @Test
+    void getPopularProducts_shouldOnlyRankReadsOfOwnTenant() {
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(product));
+
+        productService.getProduct("testId", TENANT, requestID).block();
+
+        StepVerifier.create(productService.getPopularProducts(10, "globex", requestID))
+                .verifyComplete();
+        StepVerifier.create(productService.getPopularProducts(10, TENANT, requestID))
+                .expectNextMatches(popular -> popular.getProductId().equals("testId"))
+                .verifyComplete();
+    }
+
+    @Test
+    void getPopularProducts_shouldNotCountWarmUpReads() {
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(product));
+
+        StepVerifier.create(productService.getProduct("testId", TENANT, requestID).contextWrite(WarmUpMarker::markWarmUp))
+                .expectNextMatches(response -> response.getId().equals("testId"))
+                .verifyComplete();
+
+        StepVerifier.create(productService.getPopularProducts(10, TENANT, requestID))
+                .verifyComplete();
+    }
+
+    @Test
+    void getPopularProducts_shouldRankMostReadProductsFirst() {
+        Product other = new Product();
+        other.setProductId("otherId");
+        other.setTenantId(TENANT);
+        other.setName("Other Product");
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.just(product));
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "otherId")).thenReturn(Mono.just(other));
+
+        for (int i = 0; i < 5; i++) {
+            productService.getProduct("testId", TENANT, requestID).block();
+        }
+        productService.getProduct("otherId", TENANT, requestID).block();
+
+        StepVerifier.create(productService.getPopularProducts(2, TENANT, requestID))
+                .expectNextMatches(popular -> popular.getProductId().equals("testId") && popular.getEstimatedCount() == 5)
+                .expectNextMatches(popular -> popular.getProductId().equals("otherId") && popular.getEstimatedCount() == 1)
+                .verifyComplete();
+    }
+
+    @Test
+    void getPopularProducts_whenLimitInvalid_shouldThrowIllegalArgumentException() {
+        StepVerifier.create(productService.getPopularProducts(0, TENANT, requestID))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void getPriceHistory_shouldReturnPointsInRange() {
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-01-31T00:00:00Z");
+        when(productRepository.existsByTenantIdAndProductId(TENANT, "testId")).thenReturn(Mono.just(true));
+        when(priceHistoryStore.find("testId", from, to)).thenReturn(Flux.just(
+                new PriceHistoryBucket.Point(Instant.parse("2026-01-02T10:00:00Z"), 100.0, 10),
+                new PriceHistoryBucket.Point(Instant.parse("2026-01-03T10:00:00Z"), 120.0, 8)));
+
+        StepVerifier.create(productService.getPriceHistory("testId", from, to, TENANT, requestID))
+                .expectNextMatches(point -> point.getPrice().equals(100.0) && point.getQuantity() == 10)
+                .expectNextMatches(point -> point.getPrice().equals(120.0) && point.getQuantity() == 8)
+                .verifyComplete();
+    }
+
+    @Test
+    void getPriceHistory_whenProductOwnedByAnotherTenant_shouldThrowProductNotFoundException() {
+        when(productRepository.existsByTenantIdAndProductId("globex", "testId")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(productService.getPriceHistory("testId", null, null, "globex", requestID))
+                .expectErrorMatches(throwable -> throwable instanceof ProductNotFoundException &&
+                        throwable.getMessage().equals("Product not found with ID: testId"))
+                .verify();
+
+        verify(priceHistoryStore, Mockito.never()).find(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void getPriceHistory_whenRangeInverted_shouldThrowIllegalArgumentException() {
+        StepVerifier.create(productService.getPriceHistory("testId",
+                        Instant.parse("2026-02-01T00:00:00Z"), Instant.parse("2026-01-01T00:00:00Z"), TENANT, requestID))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(priceHistoryStore, Mockito.never()).find(Mockito.any(), Mockito.any(), Mockito.any());
     }
 
     @Test
     void getProduct_whenNullId_shouldThrowCustomException() {
-        StepVerifier.create(productService.getProduct(null, requestID))
+        StepVerifier.create(productService.getProduct(null, TENANT, requestID))
                 .expectErrorMatches(throwable -> throwable instanceof CustomException &&
                         throwable.getMessage().equals("Product ID cannot be null or empty"))
                 .verify();
@@ -208,7 +614,7 @@ class ProductServiceTest {
 
     @Test
     void getProduct_whenEmptyId_shouldThrowCustomException() {
-        StepVerifier.create(productService.getProduct("", requestID))
+        StepVerifier.create(productService.getProduct("", TENANT, requestID))
                 .expectErrorMatches(throwable -> throwable instanceof CustomException &&
                         throwable.getMessage().equals("Product ID cannot be null or empty"))
                 .verify();
@@ -216,46 +622,53 @@ class ProductServiceTest {
 
     @Test
     void getProduct_whenUnexpectedErrorOccurs_shouldThrowRuntimeException() {
-        when(productRepository.findById("testId")).thenReturn(Mono.error(new RuntimeException("Database error")));
+        when(productRepository.findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId")).thenReturn(Mono.error(new RuntimeException("Database error")));
 
-        StepVerifier.create(productService.getProduct("testId", requestID))
+        StepVerifier.create(productService.getProduct("testId", TENANT, requestID))
                 .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
                         throwable.getMessage().equals("Unexpected error occurred"))
                 .verify();
 
-        verify(productRepository).findById("testId");
+        verify(productRepository).findByTenantIdAndProductIdAndDeletedFalse(TENANT, "testId");
     }
     @Test
     void getAllProducts_whenProductsExist_shouldReturnProductList() {
-        when(productRepository.findAll()).thenReturn(Flux.just(product));
+        when(productRepository.findAllByTenantIdAndDeletedFalse(TENANT)).thenReturn(Flux.just(product));
 
-        StepVerifier.create(productService.getAllProducts(requestID))
+        StepVerifier.create(productService.getAllProducts(TENANT, requestID))
                 .expectNextMatches(response -> response.getName().equals("Test Product"))
                 .verifyComplete();
 
-        verify(productRepository).findAll();
+        verify(productRepository).findAllByTenantIdAndDeletedFalse(TENANT);
     }
 
     @Test
     void getAllProducts_whenNoProductsExist_shouldReturnEmptyFlux() {
-        when(productRepository.findAll()).thenReturn(Flux.empty());
+        when(productRepository.findAllByTenantIdAndDeletedFalse(TENANT)).thenReturn(Flux.empty());
 
-        StepVerifier.create(productService.getAllProducts(requestID))
+        StepVerifier.create(productService.getAllProducts(TENANT, requestID))
                 .verifyComplete();
 
-        verify(productRepository).findAll();
+        verify(productRepository).findAllByTenantIdAndDeletedFalse(TENANT);
     }
 
     @Test
     void getAllProducts_whenUnexpectedErrorOccurs_shouldThrowRuntimeException() {
-        when(productRepository.findAll()).thenReturn(Flux.error(new RuntimeException("Database error")));
+        when(productRepository.findAllByTenantIdAndDeletedFalse(TENANT)).thenReturn(Flux.error(new RuntimeException("Database error")));
 
-        StepVerifier.create(productService.getAllProducts(requestID))
+        StepVerifier.create(productService.getAllProducts(TENANT, requestID))
                 .expectErrorMatches(throwable -> throwable instanceof RuntimeException &&
                         throwable.getMessage().equals("Database error"))
                 .verify();
 
-        verify(productRepository).findAll();
+        verify(productRepository).findAllByTenantIdAndDeletedFalse(TENANT);
     }
 
+
+    // What Spring reports when Mongo aborts a transaction that lost a write conflict
+    static UncategorizedMongoDbException writeConflict() {
+        MongoException conflict = new MongoException(112, "WriteConflict error: this operation conflicted with another operation");
+        conflict.addLabel(TransactionRetry.TRANSIENT_TRANSACTION_ERROR);
+        return new UncategorizedMongoDbException(conflict.getMessage(), conflict);
+    }
 }
@@ -0,0 +1,116 @@
+package com.afrisol.ProductService.tenant;
+
+import com.afrisol.ProductService.config.WarmUpMarker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TenantQuotaFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private final WebFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    @Test
+    void filter_whenQuotaExhausted_shouldReturn429() {
+        TenantQuotaFilter filter = newFilter(2, Map.of());
+
+        assertNull(send(filter, "/api/v1/products", "acme").getResponse().getStatusCode());
+        assertNull(send(filter, "/api/v1/products", "acme").getResponse().getStatusCode());
+        MockServerWebExchange throttled = send(filter, "/api/v1/products", "acme");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, throttled.getResponse().getStatusCode());
+        assertEquals("1", throttled.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(2, forwarded.get());
+        assertEquals(2, meterRegistry.get("product.tenant.requests").tags("tenant", "acme", "outcome", "accepted").counter().count());
+        assertEquals(1, meterRegistry.get("product.tenant.requests").tags("tenant", "acme", "outcome", "throttled").counter().count());
+        assertEquals(2, meterRegistry.get("product.tenant.request.latency").tag("tenant", "acme").timer().count());
+    }
+
+    @Test
+    void filter_shouldKeepSeparateQuotaPerTenant() {
+        TenantQuotaFilter filter = newFilter(1, Map.of("globex", 3));
+
+        send(filter, "/api/v1/products", "acme");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, send(filter, "/api/v1/products", "acme").getResponse().getStatusCode());
+        for (int i = 0; i < 3; i++) {
+            assertNull(send(filter, "/api/v1/products", "globex").getResponse().getStatusCode());
+        }
+        // Requests without the header count against the default tenant
+        assertNull(send(filter, "/api/v1/products", null).getResponse().getStatusCode());
+
+        assertEquals(5, forwarded.get());
+    }
+
+    @Test
+    void filter_whenNoQuotaConfigured_shouldNeverThrottle() {
+        TenantQuotaFilter filter = newFilter(0, Map.of());
+
+        for (int i = 0; i < 100; i++) {
+            send(filter, "/api/v1/products", "acme");
+        }
+
+        assertEquals(100, forwarded.get());
+    }
+
+    @Test
+    void filter_whenOutsideApiOrTenantInvalid_shouldPassThrough() {
+        TenantQuotaFilter filter = newFilter(1, Map.of());
+
+        send(filter, "/actuator/health", "acme");
+        send(filter, "/actuator/health", "acme");
+        send(filter, "/api/v1/products", "acme:eu");
+        send(filter, "/api/v1/products", "acme:eu");
+        send(filter, "/api/v1/products", "initech");
+        send(filter, "/api/v1/products", "initech");
+
+        assertEquals(6, forwarded.get());
+        assertEquals(0, meterRegistry.find("product.tenant.requests").counters().size());
+    }
+
+    @Test
+    void filter_whenClientSendsWarmUpHeader_shouldStillCountRequest() {
+        TenantQuotaFilter filter = newFilter(1, Map.of());
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/v1/products")
+                .header(TenantIdArgumentResolver.TENANT_HEADER, "acme")
+                .header(WarmUpMarker.WARM_UP_HEADER, "true");
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(filter.filter(MockServerWebExchange.from(request), chain)).verifyComplete();
+        }
+
+        // Only the runner knows the header value that exempts a request
+        assertEquals(1, forwarded.get());
+        assertEquals(1, meterRegistry.get("product.tenant.requests").tags("tenant", "acme", "outcome", "throttled").counter().count());
+    }
+
+    private TenantQuotaFilter newFilter(int requestsPerSecond, Map<String, Integer> overrides) {
+        return new TenantQuotaFilter(new TenantIdArgumentResolver("default", List.of("acme", "globex")), meterRegistry, requestsPerSecond, overrides);
+    }
+
+    private MockServerWebExchange send(TenantQuotaFilter filter, String path, String tenantId) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+        if (tenantId != null) {
+            request.header(TenantIdArgumentResolver.TENANT_HEADER, tenantId);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+        return exchange;
+    }
+}
@@ -0,0 +1,60 @@
+package com.afrisol.ProductService.tracking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrequencySketchTest {
+    private FrequencySketch sketch;
+
+    @BeforeEach
+    void setUp() {
+        sketch = new FrequencySketch(1024, 10);
+    }
+
+    @Test
+    void top_shouldRankHotKeyFirst() {
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("hot");
+        }
+        for (int i = 0; i < 50; i++) {
+            sketch.increment("cold-" + i);
+        }
+
+        List<Map.Entry<String, Long>> top = sketch.top(3);
+
+        assertEquals("hot", top.get(0).getKey());
+        assertTrue(top.get(0).getValue() >= 100);
+    }
+
+    @Test
+    void decay_shouldHalveCountsAndKeepCapacity() {
+        for (int i = 0; i < 40; i++) {
+            sketch.increment("hot");
+        }
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("cold-" + i);
+        }
+
+        sketch.decay();
+
+        assertEquals(20, sketch.estimate("hot"));
+        assertTrue(sketch.top(100).size() <= 10);
+    }
+
+    @Test
+    void estimate_whenHashCodesCollide_shouldCountKeysSeparately() {
+        // "Aa" and "BB" have the same String.hashCode
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("Aa");
+        }
+
+        assertEquals(100, sketch.estimate("Aa"));
+        assertEquals(0, sketch.estimate("BB"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.afrisol.ProductService.tracking;
+
+import com.afrisol.ProductService.dto.PopularProductDto;
+import com.afrisol.ProductService.model.AccessSnapshot;
+import com.afrisol.ProductService.repository.AccessSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductAccessTrackerTest {
+    @Mock
+    private AccessSnapshotRepository accessSnapshotRepository;
+
+    private ProductAccessTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ProductAccessTracker(1024, 10, accessSnapshotRepository);
+        // The busy tenant reads far more products, far more often, than the tracker keeps per tenant
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 50; i++) {
+                tracker.record("busy", "busy-" + i);
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            tracker.record("small", "small-hot");
+        }
+        tracker.record("small", "small-cold");
+    }
+
+    @Test
+    void topProducts_whenOtherTenantDominates_shouldStillRankSmallTenant() {
+        List<PopularProductDto> top = tracker.topProducts("small", 5);
+
+        assertEquals(List.of("small-hot", "small-cold"), top.stream().map(PopularProductDto::getProductId).toList());
+        assertEquals(3, top.get(0).getEstimatedCount());
+    }
+
+    @Test
+    void topProducts_shouldOnlyReturnTenantsOwnProducts() {
+        List<PopularProductDto> top = tracker.topProducts("busy", 10);
+
+        assertEquals(10, top.size());
+        assertTrue(top.stream().allMatch(product -> product.getProductId().startsWith("busy-")));
+        assertTrue(tracker.topProducts("unknown", 10).isEmpty());
+    }
+
+    @Test
+    void decayAndSnapshot_shouldKeepEveryTenantsHotProducts() {
+        when(accessSnapshotRepository.save(Mockito.any(AccessSnapshot.class))).thenAnswer(call -> Mono.just(call.getArgument(0)));
+
+        tracker.decayAndSnapshot();
+
+        ArgumentCaptor<AccessSnapshot> snapshot = ArgumentCaptor.forClass(AccessSnapshot.class);
+        verify(accessSnapshotRepository).save(snapshot.capture());
+        List<AccessSnapshot.Entry> smallEntries = snapshot.getValue().getEntries().stream()
+                .filter(entry -> entry.getTenantId().equals("small"))
+                .toList();
+        assertEquals(2, smallEntries.size());
+        assertEquals(1, tracker.topProducts("small", 1).get(0).getEstimatedCount());
+    }
+
+    @Test
+    void topProducts_whenReadAtSteadyRate_shouldEstimateThatRateBetweenDecays() {
+        when(accessSnapshotRepository.save(Mockito.any(AccessSnapshot.class))).thenAnswer(call -> Mono.just(call.getArgument(0)));
+        AtomicLong now = new AtomicLong();
+        ProductAccessTracker steady = new ProductAccessTracker(1024, 10, accessSnapshotRepository, now::get);
+        Duration decayInterval = Duration.ofMinutes(1);
+
+        // Ten reads a second, through five decays and half of the next interval
+        for (int second = 1; second <= 330; second++) {
+            for (int read = 0; read < 10; read++) {
+                steady.record("acme", "steady");
+            }
+            now.addAndGet(Duration.ofSeconds(1).toNanos());
+            if (second % decayInterval.toSeconds() == 0) {
+                steady.decayAndSnapshot();
+            }
+        }
+
+        assertEquals(10.0, steady.topProducts("acme", 1).get(0).getRequestsPerSecond(), 0.1);
+    }
+}
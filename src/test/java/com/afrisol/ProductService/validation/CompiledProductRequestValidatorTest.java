@@ -0,0 +1,120 @@
+package com.afrisol.ProductService.validation;
+
+import com.afrisol.ProductService.dto.ProductRequestDto;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that the compiled validator reports exactly what Bean Validation reports.
+ */
+class CompiledProductRequestValidatorTest {
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final CompiledProductRequestValidator compiledValidator =
+            CompiledProductRequestValidator.compile(validator.getConstraintsForClass(ProductRequestDto.class));
+
+    @Test
+    void compile_whenDtoHasOnlyKnownConstraints_shouldSucceed() {
+        assertNotNull(compiledValidator);
+    }
+
+    @Test
+    void compile_whenOtherClass_shouldFallBack() {
+        assertNull(CompiledProductRequestValidator.compile(validator.getConstraintsForClass(Object.class)));
+    }
+
+    @Test
+    void validate_shouldReportSameErrorsAsBeanValidation() {
+        List<Consumer<ProductRequestDto>> cases = List.of(
+                dto -> { },
+                dto -> dto.setName(null),
+                dto -> dto.setName("   "),
+                dto -> dto.setName("x".repeat(101)),
+                dto -> dto.setName("x".repeat(100)),
+                dto -> dto.setDescription(null),
+                dto -> dto.setDescription("x".repeat(1001)),
+                dto -> dto.setType(null),
+                dto -> dto.setType("Electronics 2"),
+                dto -> dto.setType("Home\tand\nGarden"),
+                dto -> dto.setType("\u00C9lectronique"),
+                dto -> dto.setPrice(null),
+                dto -> dto.setPrice(0.0),
+                dto -> dto.setPrice(-0.0),
+                dto -> dto.setPrice(-5.0),
+                dto -> dto.setPrice(0.01),
+                dto -> dto.setPrice(19.999),
+                dto -> dto.setPrice(0.1 + 0.2),
+                dto -> dto.setPrice(9999999999.99),
+                dto -> dto.setPrice(10000000000.0),
+                dto -> dto.setPrice(1e-7),
+                dto -> dto.setQuantity(-1),
+                dto -> dto.setQuantity(0),
+                dto -> {
+                    dto.setName("");
+                    dto.setDescription("x".repeat(1001));
+                    dto.setPrice(-1.23);
+                    dto.setQuantity(-1);
+                });
+
+        for (Consumer<ProductRequestDto> change : cases) {
+            ProductRequestDto dto = validProduct(0);
+            change.accept(dto);
+            assertEquals(beanValidation(dto), compiledValidator.validate(dto), dto.toString());
+        }
+    }
+
+    @Test
+    void validate_whenFieldBreaksSeveralConstraints_shouldReportOneOfThem() {
+        ProductRequestDto dto = validProduct(0);
+        dto.setType("");
+
+        assertEquals(Map.of("type", "Product type cannot be blank"), compiledValidator.validate(dto));
+        assertEquals(beanValidation(dto).keySet(), compiledValidator.validate(dto).keySet());
+    }
+
+    @Test
+    void validate_whenBulkBatch_shouldMatchBeanValidationForEveryRequest() {
+        // Shaped like a bulk ingest, one request in ten breaks the type and price rules
+        List<ProductRequestDto> batch = IntStream.range(0, 1000).mapToObj(i -> {
+            ProductRequestDto dto = validProduct(i);
+            dto.setDescription("Test Description for product number " + i);
+            dto.setQuantity(i);
+            if (i % 10 == 0) {
+                dto.setType("Electronics " + i);
+                dto.setPrice(-1.0);
+            }
+            return dto;
+        }).toList();
+
+        for (ProductRequestDto dto : batch) {
+            assertEquals(beanValidation(dto), compiledValidator.validate(dto), dto.toString());
+        }
+        assertEquals(100, batch.stream().filter(dto -> !compiledValidator.validate(dto).isEmpty()).count());
+    }
+
+    private ProductRequestDto validProduct(int i) {
+        return ProductRequestDto.builder()
+                .name("Test Product " + i)
+                .description("Test Description")
+                .type("Electronics")
+                .price(100.0 + i)
+                .quantity(10)
+                .build();
+    }
+
+    private Map<String, String> beanValidation(ProductRequestDto dto) {
+        Map<String, String> errors = new HashMap<>();
+        validator.validate(dto).forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return errors;
+    }
+}
@@ -0,0 +1,59 @@
+package com.afrisol.ProductService.validation;
+
+import com.afrisol.ProductService.dto.ProductRequestDto;
+import com.afrisol.ProductService.exception.RequestValidationException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+
+class ProductRequestValidatorTest {
+    private Scheduler workScheduler;
+    private ProductRequestValidator productRequestValidator;
+    private ProductRequestDto productDto;
+
+    @BeforeEach
+    void setUp() {
+        workScheduler = Schedulers.newBoundedElastic(2, 100, "product-work");
+        productRequestValidator = new ProductRequestValidator(
+                Validation.buildDefaultValidatorFactory().getValidator(), workScheduler);
+
+        productDto = new ProductRequestDto();
+        productDto.setName("Test Product");
+        productDto.setType("Electronics");
+        productDto.setDescription("Test Description");
+        productDto.setPrice(100.0);
+        productDto.setQuantity(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workScheduler.dispose();
+    }
+
+    @Test
+    void validate_whenValid_shouldRunOnWorkScheduler() {
+        StepVerifier.create(productRequestValidator.validate(productDto)
+                        .map(valid -> Thread.currentThread().getName()))
+                .expectNextMatches(thread -> thread.startsWith("product-work"))
+                .verifyComplete();
+    }
+
+    @Test
+    void validate_whenInvalid_shouldReportFieldErrors() {
+        productDto.setName("");
+        productDto.setType("Electronics 2");
+
+        StepVerifier.create(productRequestValidator.validate(productDto))
+                .expectErrorMatches(throwable -> throwable instanceof RequestValidationException &&
+                        ((RequestValidationException) throwable).getFieldErrors().equals(Map.of(
+                                "name", "Product name cannot be blank",
+                                "type", "Product type can only contain letters and spaces")))
+                .verify();
+    }
+}